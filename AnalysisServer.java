@@ -0,0 +1,187 @@
+package graph;
+
+import graph.data.GraphLoader;
+import graph.data.LoadedGraph;
+import graph.data.StreamingGraphLoader;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Resident analysis service. One JVM stays up with Jackson initialized and
+ * the pipeline JIT-compiled, and answers requests on stdin/stdout or on a
+ * loopback socket, one line per request and one JSON line per response:
+ *
+ *   analyze <path>   analyze a JSON or binary dataset file
+ *   {...}            analyze an inline JSON dataset
+ *   ping             responds {"status":"ok"}
+ *   quit             ends the session (closes the connection on a socket)
+ *   shutdown         stops the server
+ *
+ * Requests are handled one at a time so the loaders' edge buffers, the
+ * algorithms' workspace and the response buffer are reused between
+ * requests. Nothing is printed or exported; timings in the response cover
+ * loading and the analysis stages.
+ */
+public final class AnalysisServer {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final GraphProcessor processor;
+    private final GraphLoader fileLoader = new GraphLoader();
+    private final StreamingGraphLoader inlineLoader = new StreamingGraphLoader();
+    private final StringWriter response = new StringWriter(1024);
+    private boolean shutdown;
+
+    public AnalysisServer(GraphProcessor.Options options) {
+        GraphProcessor.Options quiet = options.copy();
+        quiet.verbosity = Verbosity.QUIET;
+        quiet.progress = false;
+        quiet.workspace = true;
+        this.processor = new GraphProcessor(quiet);
+    }
+
+    /**
+     * Serves one session until end of input, quit or shutdown
+     */
+    public void serve(InputStream input, OutputStream output) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer out = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if ("quit".equals(line) || "shutdown".equals(line)) {
+                shutdown |= "shutdown".equals(line);
+                break;
+            }
+            out.write(handle(line));
+            out.write('\n');
+            out.flush();
+        }
+        out.flush();
+    }
+
+    /**
+     * Accepts connections on the loopback interface, one session at a time,
+     * until a client sends shutdown
+     */
+    public void listen(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.err.println("Analysis server listening on " + server.getLocalSocketAddress());
+            while (!shutdown) {
+                try (Socket client = server.accept()) {
+                    serve(client.getInputStream(), client.getOutputStream());
+                } catch (IOException e) {
+                    System.err.println("Session failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // One request line to one response line; failures become error responses
+    String handle(String request) {
+        try {
+            if ("ping".equals(request)) {
+                return respond(null, null, 0);
+            }
+            long loadStart = System.nanoTime();
+            LoadedGraph loaded;
+            String name;
+            if (request.startsWith("{")) {
+                loaded = inlineLoader.load(request);
+                name = "inline";
+            } else if (request.startsWith("analyze ")) {
+                File file = new File(request.substring("analyze ".length()).trim());
+                loaded = fileLoader.load(file);
+                name = file.getName();
+            } else {
+                throw new IllegalArgumentException("Unknown request: " + request);
+            }
+            long loadTime = System.nanoTime() - loadStart;
+            return respond(name, processor.analyze(loaded, name), loadTime);
+        } catch (Exception e) {
+            return error(e);
+        }
+    }
+
+    private String respond(String name, GraphProcessor.ProcessingResult result, long loadTime) throws IOException {
+        response.getBuffer().setLength(0);
+        try (JsonGenerator json = FACTORY.createGenerator(response)) {
+            json.writeStartObject();
+            json.writeStringField("status", "ok");
+            if (result != null) {
+                int reachable = 0;
+                for (int distance : result.shortestDistances) {
+                    if (distance != Integer.MAX_VALUE) {
+                        reachable++;
+                    }
+                }
+                json.writeStringField("dataset", name);
+                json.writeNumberField("nodes", result.originalGraph.getVertices());
+                json.writeNumberField("edges", result.originalGraph.getEdgeCount());
+                json.writeNumberField("sccs", result.sccs.size());
+                json.writeNumberField("condensationEdges", result.condensationGraph.getEdgeCount());
+                json.writeNumberField("source", result.sourceVertex);
+                json.writeNumberField("sourceComponent", result.sourceComponent);
+                json.writeNumberField("reachableFromSource", reachable);
+                json.writeNumberField("criticalPathLength", result.criticalPathLength);
+                json.writeNumberField("criticalPathComponents", result.criticalPath.size());
+
+                json.writeObjectFieldStart("realTimeNs");
+                json.writeNumberField("load", loadTime);
+                json.writeNumberField("scc", result.sccRealTime);
+                json.writeNumberField("condensation", result.condensationTime);
+                json.writeNumberField("topologicalSort", result.topoRealTime);
+                json.writeNumberField("shortestPaths", result.spRealTime);
+                json.writeNumberField("criticalPath", result.cpRealTime);
+                json.writeNumberField("total", result.totalRealTime);
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+        }
+        return response.toString();
+    }
+
+    private String error(Exception e) {
+        response.getBuffer().setLength(0);
+        try (JsonGenerator json = FACTORY.createGenerator(response)) {
+            json.writeStartObject();
+            json.writeStringField("status", "error");
+            json.writeStringField("message", e.getClass().getSimpleName() + ": " + e.getMessage());
+            json.writeEndObject();
+        } catch (IOException impossible) {
+            throw new IllegalStateException(impossible);
+        }
+        return response.toString();
+    }
+
+    public static void main(String[] args) {
+        try {
+            GraphProcessor.Options options = GraphProcessor.Options.parse(args);
+            AnalysisServer server = new AnalysisServer(options);
+            if (options.port > 0) {
+                server.listen(options.port);
+            } else {
+                server.serve(System.in, System.out);
+            }
+        } catch (Exception e) {
+            System.err.println("Error in analysis server: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -1,169 +1,371 @@
 package graph;
 
-import graph.scc.KosarajuSCC;
+import graph.scc.CondensationWeight;
+import graph.scc.SCCAlgorithm;
+import graph.scc.SCCResult;
+import graph.scc.StronglyConnectedComponents;
 import graph.topo.KahnsTopologicalSort;
+import graph.topo.ParallelKahnsTopologicalSort;
+import graph.topo.TopologicalSort;
 import graph.dagsp.DAGShortestPath;
 import graph.dagsp.CriticalPath;
-import graph.model.Graph;
-import graph.model.GraphData;
+import graph.dagsp.ReachabilityIndex;
+import graph.model.WeightedGraph;
+import graph.model.GraphMetadata;
+import graph.model.WeightModel;
+import graph.data.LoadedGraph;
+import graph.data.GraphLoader;
 import graph.metrics.Metrics;
+import graph.metrics.Operation;
+import graph.metrics.OperationCounter;
+import graph.export.AsyncExporter;
 import graph.export.CSVExporter;
 import graph.export.JSONExporter;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import graph.util.IntArrays;
+import graph.util.Workspace;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Main processor that executes all graph tasks on a given dataset with proper time measurement
  */
 public class GraphProcessor {
-    private final ObjectMapper mapper;
+    private final SCCAlgorithm sccAlgorithm;
+    private final CondensationWeight condensationWeight;
+    private final boolean countOperations;
+    private final int parallelism;
+    private final boolean parallelTopo;
+    private final boolean reachability;
+    private final boolean compactJson;
+    private final boolean csvTables;
+    private final boolean gzipCsv;
+    private final int exportThreads;
+    private final Verbosity verbosity;
+    private final boolean progress;
+    // Per-thread scratch buffers, only with --workspace
+    private final ThreadLocal<Workspace> workspaces;
+    // Only with --cache
+    private final ResultCache cache;
+
+    // Results waiting for the export stage, per writer thread
+    private static final int EXPORT_QUEUE_PER_THREAD = 2;
 
     public GraphProcessor() {
-        this.mapper = new ObjectMapper();
+        this(new Options());
+    }
+
+    public GraphProcessor(Options options) {
+        this.sccAlgorithm = options.sccAlgorithm;
+        this.condensationWeight = options.condensationWeight;
+        this.countOperations = options.countOperations;
+        this.parallelism = options.parallelism;
+        this.parallelTopo = options.parallelTopo;
+        this.reachability = options.reachability;
+        this.compactJson = options.compactJson;
+        this.csvTables = options.csvTables;
+        this.gzipCsv = options.gzipCsv;
+        this.exportThreads = options.exportThreads;
+        this.verbosity = options.verbosity;
+        this.progress = options.progress;
+        this.workspaces = options.workspace ? ThreadLocal.withInitial(Workspace::new) : null;
+        this.cache = options.cacheDirectory != null
+                ? new ResultCache(new File(options.cacheDirectory), options.cacheMaxBytes)
+                : null;
+    }
+
+    // Fresh counters per stage, or the shared no-op instance when counting is disabled
+    private Metrics newMetrics() {
+        return countOperations ? new OperationCounter() : Metrics.NONE;
+    }
+
+    // This thread's scratch buffers, or the allocating NONE when reuse is off
+    private Workspace workspace() {
+        return workspaces != null ? workspaces.get() : Workspace.NONE;
     }
 
     public ProcessingResult processDataset(String datasetPath) throws IOException {
-        System.out.println("\n" + "=".repeat(80));
-        System.out.println("PROCESSING DATASET: " + datasetPath);
-        System.out.println("=".repeat(80));
+        return processDataset(datasetPath, System.out);
+    }
+
+    /**
+     * Runs the full pipeline on one dataset, writing its console report to out
+     */
+    public ProcessingResult processDataset(String datasetPath, PrintStream out) throws IOException {
+        return processDataset(datasetPath, out, null);
+    }
+
+    // With an exporter the result files are queued for the writer threads instead of written inline
+    private ProcessingResult processDataset(String datasetPath, PrintStream out, AsyncExporter exporter)
+            throws IOException {
+        out = reportStream(out);
+        String datasetName = new File(datasetPath).getName();
+
+        out.println("\n" + "=".repeat(80));
+        out.println("PROCESSING DATASET: " + datasetPath);
+        out.println("=".repeat(80));
+
+        // Stream a JSON dataset into CSR form, or memory-map a binary one
+        long loadStartTime = System.nanoTime();
+        LoadedGraph loaded = new GraphLoader().load(new File(datasetPath));
+        progress(datasetName, "load", System.nanoTime() - loadStartTime,
+                "vertices=" + loaded.graph.getVertices() + " edges=" + loaded.graph.getEdgeCount());
+
+        ProcessingResult result = null;
+        String cacheKey = null;
+        if (cache != null) {
+            long keyStartTime = System.nanoTime();
+            cacheKey = ResultCache.key(loaded, cacheSettings());
+            result = cache.get(cacheKey, loaded, datasetName);
+            // Hashing plus the read; replaces get's own timing, which covers only the read
+            long lookupTime = System.nanoTime() - keyStartTime;
+            if (result != null) {
+                result.cacheLookupTime = lookupTime;
+            }
+            progress(datasetName, result != null ? "cache-hit" : "cache-miss",
+                    lookupTime, "key=" + cacheKey.substring(0, 12));
+        }
 
-        // Load graph data from JSON
-        GraphData graphData = mapper.readValue(new File(datasetPath), GraphData.class);
-        Graph originalGraph = buildGraphFromData(graphData);
+        if (result == null) {
+            result = analyze(loaded, datasetName, out);
+            if (cache != null) {
+                cache.put(cacheKey, result);
+            }
+        } else {
+            out.println("\nResult cache hit " + cacheKey.substring(0, 12) + ": analysis skipped, "
+                    + result.sccs.size() + " SCCs, critical path length " + result.criticalPathLength
+                    + ", looked up in " + formatNanos(result.cacheLookupTime));
+            if (reachability) {
+                result.reachabilityIndex = ReachabilityIndex.build(result.components, result.condensationGraph,
+                        IntArrays.toArray(result.componentOrder));
+            }
+            printPerformanceMetrics(result, out);
+        }
+
+        // Export results to CSV and JSON
+        long exportStartTime = System.nanoTime();
+        exportResults(result, datasetPath, out, exporter);
+        progress(datasetName, exporter != null ? "export-queued" : "export",
+                System.nanoTime() - exportStartTime, "");
+
+        return result;
+    }
+
+    /**
+     * Runs the analysis stages on an already loaded graph without writing any
+     * result files; the console report follows the configured verbosity.
+     */
+    public ProcessingResult analyze(LoadedGraph loaded, String datasetName) {
+        return analyze(loaded, datasetName, reportStream(System.out));
+    }
+
+    // Everything besides the graph that changes a cached result
+    private String cacheSettings() {
+        return sccAlgorithm + "," + condensationWeight + "," + parallelTopo + "," + countOperations;
+    }
+
+    // Quiet runs discard the per-dataset report
+    private PrintStream reportStream(PrintStream out) {
+        return verbosity == Verbosity.QUIET ? new PrintStream(OutputStream.nullOutputStream()) : out;
+    }
+
+    private ProcessingResult analyze(LoadedGraph loaded, String datasetName, PrintStream out) {
+        // Summary runs skip the per-element listings
+        boolean full = verbosity == Verbosity.FULL;
+        GraphMetadata metadata = loaded.metadata;
+        WeightedGraph originalGraph = loaded.graph;
+        boolean nodeWeighted = metadata.getWeightModelType() == WeightModel.NODE;
 
         ProcessingResult result = new ProcessingResult();
-        result.datasetName = new File(datasetPath).getName();
+        result.datasetName = datasetName;
         result.originalGraph = originalGraph;
-        result.graphData = graphData;
+        result.metadata = metadata;
 
         // Measure total processing time
         long totalStartTime = System.nanoTime();
 
         // 1.1 SCC Detection with proper time measurement
-        System.out.println("\n1. STRONGLY CONNECTED COMPONENTS ANALYSIS");
-        System.out.println("-".repeat(50));
+        out.println("\n1. STRONGLY CONNECTED COMPONENTS ANALYSIS (" + sccAlgorithm + ")");
+        out.println("-".repeat(50));
 
         long sccStartTime = System.nanoTime();
-        KosarajuSCC sccFinder = new KosarajuSCC();
-        List<List<Integer>> sccs = sccFinder.findSCCs(originalGraph);
+        StronglyConnectedComponents sccFinder = sccAlgorithm.create(newMetrics(), workspace());
+        SCCResult components = sccFinder.findComponents(originalGraph);
         long sccEndTime = System.nanoTime();
+        List<List<Integer>> sccs = components.asLists();
+        result.components = components;
         result.sccs = sccs;
         result.sccMetrics = sccFinder.getMetrics();
         result.sccRealTime = sccEndTime - sccStartTime;
+        progress(datasetName, "scc", result.sccRealTime, "sccs=" + sccs.size());
 
-        System.out.println("Found " + sccs.size() + " SCCs:");
-        for (int i = 0; i < sccs.size(); i++) {
-            System.out.println("  SCC " + i + ": " + sccs.get(i) + " (size: " + sccs.get(i).size() + ")");
+        if (full) {
+            out.println("Found " + sccs.size() + " SCCs:");
+            for (int i = 0; i < sccs.size(); i++) {
+                out.println("  SCC " + i + ": " + sccs.get(i) + " (size: " + sccs.get(i).size() + ")");
+            }
+        } else {
+            out.println("Found " + sccs.size() + " SCCs (largest: " + components.largestSize() + " vertices)");
         }
 
         // 1.1 Build Condensation Graph with time measurement
         long condensationStartTime = System.nanoTime();
-        Graph condensationGraph = sccFinder.buildCondensationGraph(originalGraph, sccs);
+        WeightedGraph condensationGraph = sccFinder.buildCondensationGraph(originalGraph, components, condensationWeight);
         long condensationEndTime = System.nanoTime();
         result.condensationGraph = condensationGraph;
         result.condensationTime = condensationEndTime - condensationStartTime;
-        System.out.println("Condensation graph built: " + condensationGraph.getVertices() + " components");
+        progress(datasetName, "condensation", result.condensationTime,
+                "components=" + condensationGraph.getVertices() + " edges=" + condensationGraph.getEdgeCount());
+        out.println("Condensation graph built: " + condensationGraph.getVertices() + " components");
+
+        // Node weight model: components carry the summed durations of their tasks
+        int[] componentDurations = null;
+        if (nodeWeighted) {
+            componentDurations = sccFinder.condensationDurations(components, loaded.durations);
+            out.println("Weight model: node"
+                    + (full ? " (component durations " + Arrays.toString(componentDurations) + ")" : ""));
+        }
 
         // 1.2 Topological Sort with time measurement
-        System.out.println("\n2. TOPOLOGICAL SORTING");
-        System.out.println("-".repeat(50));
+        out.println("\n2. TOPOLOGICAL SORTING");
+        out.println("-".repeat(50));
 
         long topoStartTime = System.nanoTime();
-        KahnsTopologicalSort topoSort = new KahnsTopologicalSort();
-        List<Integer> componentOrder = topoSort.topologicalOrder(condensationGraph);
+        TopologicalSort topoSort = parallelTopo
+                ? new ParallelKahnsTopologicalSort(newMetrics(), true)
+                : new KahnsTopologicalSort(newMetrics(), workspace());
+        int[] order = topoSort.order(condensationGraph);
         long topoEndTime = System.nanoTime();
+        List<Integer> componentOrder = IntArrays.asList(order);
         result.componentOrder = componentOrder;
         result.topoMetrics = topoSort.getMetrics();
         result.topoRealTime = topoEndTime - topoStartTime;
-
-        System.out.println("Topological order of components: " + componentOrder);
+        progress(datasetName, "topo", result.topoRealTime, "components=" + componentOrder.size());
 
         // Derive order of original tasks after SCC compression
-        List<Integer> taskOrder = deriveTaskOrder(sccs, componentOrder);
+        List<Integer> taskOrder = IntArrays.asList(components.expand(order));
         result.taskOrder = taskOrder;
-        System.out.println("Derived task order: " + taskOrder);
 
-        // 1.3 Shortest Paths in DAG with time measurement
-        System.out.println("\n3. SHORTEST PATHS AND CRITICAL PATH");
-        System.out.println("-".repeat(50));
+        if (full) {
+            out.println("Topological order of components: " + componentOrder);
+            out.println("Derived task order: " + taskOrder);
+        } else {
+            out.println("Topological order of components: " + componentOrder.size() + " components");
+            out.println("Derived task order: " + taskOrder.size() + " tasks");
+        }
 
-        int source = graphData.getSource() != null ? graphData.getSource() : 0;
-        System.out.println("Source component: " + source);
+        // Optional reachability index for "can task A affect task B" queries
+        if (reachability) {
+            ReachabilityIndex index = ReachabilityIndex.build(components, condensationGraph, order);
+            result.reachabilityIndex = index;
+            progress(datasetName, "reachability", index.getBuildTime(),
+                    "kind=" + index.getKind() + " bytes=" + index.getMemoryBytes());
+            out.printf("Reachability index: %s over %d components, built in %.3f ms, %d bytes%n",
+                    index.getKind(), index.getComponentCount(),
+                    index.getBuildTime() / 1_000_000.0, index.getMemoryBytes());
+        }
+
+        // 1.3 Shortest Paths in DAG with time measurement
+        out.println("\n3. SHORTEST PATHS AND CRITICAL PATH");
+        out.println("-".repeat(50));
+
+        // The dataset names a source task; paths in the condensation start at its component
+        int sourceVertex = metadata.getSource() != null ? metadata.getSource() : 0;
+        if (sourceVertex < 0 || sourceVertex >= originalGraph.getVertices()) {
+            throw new IllegalArgumentException("Source vertex " + sourceVertex + " out of range [0, "
+                    + originalGraph.getVertices() + ")");
+        }
+        int source = components.componentOf[sourceVertex];
+        result.sourceVertex = sourceVertex;
+        result.sourceComponent = source;
+        out.println("Source vertex: " + sourceVertex + " (component " + source + ")");
 
         // Single-source shortest paths
         long spStartTime = System.nanoTime();
-        DAGShortestPath shortestPath = new DAGShortestPath();
-        int[] distances = shortestPath.shortestPaths(condensationGraph, source, componentOrder);
+        DAGShortestPath shortestPath = new DAGShortestPath(newMetrics(), workspace());
+        DAGShortestPath.ShortestPathTree shortestTree =
+                shortestPath.shortestPathTree(condensationGraph, source, order, componentDurations);
+        int[] distances = shortestTree.distances;
         long spEndTime = System.nanoTime();
         result.shortestDistances = distances;
         result.shortestPathMetrics = shortestPath.getMetrics();
         result.spRealTime = spEndTime - spStartTime;
 
-        System.out.println("Shortest distances from component " + source + ":");
-        for (int i = 0; i < distances.length; i++) {
-            if (distances[i] != Integer.MAX_VALUE) {
-                System.out.println("  To component " + i + ": " + distances[i]);
+        int reachable = 0;
+        for (int distance : distances) {
+            if (distance != Integer.MAX_VALUE) {
+                reachable++;
             }
         }
+        progress(datasetName, "shortest-paths", result.spRealTime, "reachable=" + reachable);
+
+        if (full) {
+            out.println("Shortest distances from component " + source + ":");
+            for (int i = 0; i < distances.length; i++) {
+                if (distances[i] != Integer.MAX_VALUE) {
+                    out.println("  To component " + i + ": " + distances[i]);
+                }
+            }
+        } else {
+            out.println("Components reachable from component " + source + ": " + reachable);
+        }
 
         // Reconstruct one optimal path
         if (distances.length > 1) {
             int target = findReachableTarget(distances, source);
             if (target != -1) {
-                List<Integer> optimalPath = shortestPath.reconstructPath(
-                        distances, target, condensationGraph, componentOrder);
+                List<Integer> optimalPath = shortestTree.pathTo(target);
                 result.optimalPath = optimalPath;
-                System.out.println("Optimal path to component " + target + ": " + optimalPath);
+                out.println("Optimal path to component " + target + ": "
+                        + (full ? optimalPath : optimalPath.size() + " components"));
             }
         }
 
         // Longest path (Critical Path) with time measurement
         long cpStartTime = System.nanoTime();
-        CriticalPath criticalPath = new CriticalPath();
+        CriticalPath criticalPath = new CriticalPath(newMetrics(), workspace());
         CriticalPath.CriticalPathResult criticalResult =
-                criticalPath.findCriticalPath(condensationGraph, componentOrder);
+                criticalPath.findCriticalPath(condensationGraph, order, componentDurations);
         long cpEndTime = System.nanoTime();
         result.criticalPath = criticalResult.path;
         result.criticalPathLength = criticalResult.length;
         result.criticalPathMetrics = criticalPath.getMetrics();
         result.cpRealTime = cpEndTime - cpStartTime;
+        progress(datasetName, "critical-path", result.cpRealTime, "length=" + criticalResult.length);
 
-        System.out.println("Critical path: " + criticalResult.path);
-        System.out.println("Critical path length: " + criticalResult.length);
+        out.println("Critical path: "
+                + (full ? criticalResult.path : criticalResult.path.size() + " components"));
+        out.println("Critical path length: " + criticalResult.length);
 
         long totalEndTime = System.nanoTime();
         result.totalRealTime = totalEndTime - totalStartTime;
 
         // Print performance metrics
-        printPerformanceMetrics(result);
-
-        // Export results to CSV and JSON
-        exportResults(result, datasetPath);
-
+        printPerformanceMetrics(result, out);
         return result;
     }
 
-    private Graph buildGraphFromData(GraphData graphData) {
-        Graph graph = new Graph(graphData.getN(), graphData.isDirected());
-
-        for (GraphData.Edge edge : graphData.getEdges()) {
-            graph.addEdge(edge.getU(), edge.getV(), edge.getW());
-        }
-
-        return graph;
-    }
-
-    private List<Integer> deriveTaskOrder(List<List<Integer>> sccs, List<Integer> componentOrder) {
-        List<Integer> taskOrder = new ArrayList<>();
-
-        for (int component : componentOrder) {
-            taskOrder.addAll(sccs.get(component));
+    /**
+     * One machine-readable line per finished stage on stderr, e.g.
+     * "progress dataset=small1.json stage=scc time_ms=0.042 sccs=5"
+     */
+    private void progress(String dataset, String stage, long nanos, String fields) {
+        if (!progress) {
+            return;
         }
-
-        return taskOrder;
+        String line = String.format(Locale.ROOT, "progress dataset=%s stage=%s time_ms=%.3f", dataset, stage,
+                nanos / 1_000_000.0);
+        System.err.println(fields.isEmpty() ? line : line + " " + fields);
     }
 
     private int findReachableTarget(int[] distances, int source) {
@@ -175,33 +377,35 @@ public class GraphProcessor {
         return -1;
     }
 
-    private void printPerformanceMetrics(ProcessingResult result) {
-        System.out.println("\n4. PERFORMANCE METRICS (REAL TIME)");
-        System.out.println("-".repeat(50));
+    private void printPerformanceMetrics(ProcessingResult result, PrintStream out) {
+        out.println(result.cacheHit
+                ? "\n4. PERFORMANCE METRICS (REPLAYED FROM THE CACHED RUN)"
+                : "\n4. PERFORMANCE METRICS (REAL TIME)");
+        out.println("-".repeat(50));
 
-        System.out.println("SCC Algorithm:");
-        System.out.println("  Real Time: " + formatNanos(result.sccRealTime));
-        System.out.println("  DFS visits: " + result.sccMetrics.getOperationCount("dfs_visit"));
-        System.out.println("  Edge traversals: " + result.sccMetrics.getOperationCount("edge_traversal"));
+        out.println("SCC Algorithm:");
+        out.println("  Real Time: " + formatNanos(result.sccRealTime));
+        out.println("  DFS visits: " + result.sccMetrics.getOperationCount(Operation.DFS_VISIT));
+        out.println("  Edge traversals: " + result.sccMetrics.getOperationCount(Operation.EDGE_TRAVERSAL));
 
-        System.out.println("Condensation Graph:");
-        System.out.println("  Real Time: " + formatNanos(result.condensationTime));
+        out.println("Condensation Graph:");
+        out.println("  Real Time: " + formatNanos(result.condensationTime));
 
-        System.out.println("Topological Sort:");
-        System.out.println("  Real Time: " + formatNanos(result.topoRealTime));
-        System.out.println("  Queue operations: " +
-                (result.topoMetrics.getOperationCount("queue_push") +
-                        result.topoMetrics.getOperationCount("queue_pop")));
+        out.println("Topological Sort:");
+        out.println("  Real Time: " + formatNanos(result.topoRealTime));
+        out.println("  Queue operations: " +
+                (result.topoMetrics.getOperationCount(Operation.QUEUE_PUSH) +
+                        result.topoMetrics.getOperationCount(Operation.QUEUE_POP)));
 
-        System.out.println("Shortest Path:");
-        System.out.println("  Real Time: " + formatNanos(result.spRealTime));
-        System.out.println("  Relaxations: " + result.shortestPathMetrics.getOperationCount("relaxation"));
+        out.println("Shortest Path:");
+        out.println("  Real Time: " + formatNanos(result.spRealTime));
+        out.println("  Relaxations: " + result.shortestPathMetrics.getOperationCount(Operation.RELAXATION));
 
-        System.out.println("Critical Path:");
-        System.out.println("  Real Time: " + formatNanos(result.cpRealTime));
-        System.out.println("  Relaxations: " + result.criticalPathMetrics.getOperationCount("relaxation"));
+        out.println("Critical Path:");
+        out.println("  Real Time: " + formatNanos(result.cpRealTime));
+        out.println("  Relaxations: " + result.criticalPathMetrics.getOperationCount(Operation.RELAXATION));
 
-        System.out.println("TOTAL PROCESSING TIME: " + formatNanos(result.totalRealTime));
+        out.println("TOTAL PROCESSING TIME: " + formatNanos(result.totalRealTime));
     }
 
     private String formatNanos(long nanos) {
@@ -216,36 +420,60 @@ public class GraphProcessor {
         }
     }
 
-    private void exportResults(ProcessingResult result, String datasetPath) throws IOException {
-        String baseName = new File(datasetPath).getName().replace(".json", "");
+    private void exportResults(ProcessingResult result, String datasetPath, PrintStream out,
+                               AsyncExporter exporter) throws IOException {
+        String baseName = baseName(datasetPath);
         String resultsDir = "results";
         new File(resultsDir).mkdirs();
         new File(resultsDir + "/csv").mkdirs();
         new File(resultsDir + "/json").mkdirs();
 
-        // Export to CSV
-        exportToCSV(result, baseName, resultsDir);
+        AsyncExporter.Job job = () -> {
+            // Export to CSV
+            exportToCSV(result, baseName, resultsDir);
 
-        // Export to JSON
-        exportToJSON(result, baseName, resultsDir);
+            // Export to JSON
+            exportToJSON(result, baseName, resultsDir);
+        };
 
-        System.out.println("\n5. EXPORT RESULTS");
-        System.out.println("-".repeat(50));
-        System.out.println("CSV files saved to: " + resultsDir + "/csv/" + baseName + "_results.csv");
-        System.out.println("JSON files saved to: " + resultsDir + "/json/" + baseName + "_results.json");
+        String verb;
+        if (exporter != null) {
+            exporter.submit(datasetPath, job);
+            verb = "queued for";
+        } else {
+            job.write();
+            verb = "saved to";
+        }
+
+        out.println("\n5. EXPORT RESULTS");
+        out.println("-".repeat(50));
+        out.println("CSV files " + verb + ": " + resultsDir + "/csv/" + baseName + csvSuffix());
+        out.println("JSON files " + verb + ": " + resultsDir + "/json/" + baseName + "_results.json");
+    }
+
+    // File name without directory and extension, e.g. data/small1.json -> small1
+    private static String baseName(String datasetPath) {
+        String name = new File(datasetPath).getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private String csvSuffix() {
+        return gzipCsv ? "_results.csv.gz" : "_results.csv";
     }
 
     private void exportToCSV(ProcessingResult result, String baseName, String resultsDir)
             throws IOException {
 
         CSVExporter.exportCompleteResults(
-                resultsDir + "/csv/" + baseName + "_results.csv",
+                resultsDir + "/csv/" + baseName + csvSuffix(),
                 baseName,
-                result.graphData,
+                result.metadata,
                 result.sccs,
                 result.componentOrder,
                 result.taskOrder,
-                result.graphData.getSource() != null ? result.graphData.getSource() : 0,
+                result.sourceVertex,
+                result.sourceComponent,
                 result.shortestDistances,
                 result.optimalPath,
                 result.criticalPath,
@@ -259,7 +487,9 @@ public class GraphProcessor {
                 result.sccMetrics,
                 result.topoMetrics,
                 result.shortestPathMetrics,
-                result.criticalPathMetrics
+                result.criticalPathMetrics,
+                csvTables,
+                gzipCsv
         );
     }
 
@@ -269,11 +499,12 @@ public class GraphProcessor {
         JSONExporter.exportCompleteResults(
                 resultsDir + "/json/" + baseName + "_results.json",
                 baseName,
-                result.graphData,
+                result.metadata,
                 result.sccs,
                 result.componentOrder,
                 result.taskOrder,
-                result.graphData.getSource() != null ? result.graphData.getSource() : 0,
+                result.sourceVertex,
+                result.sourceComponent,
                 result.shortestDistances,
                 result.optimalPath,
                 result.criticalPath,
@@ -287,7 +518,8 @@ public class GraphProcessor {
                 result.sccMetrics,
                 result.topoMetrics,
                 result.shortestPathMetrics,
-                result.criticalPathMetrics
+                result.criticalPathMetrics,
+                compactJson
         );
     }
 
@@ -298,26 +530,124 @@ public class GraphProcessor {
                 "data/large1.json", "data/large2.json", "data/large3.json"
         };
 
-        List<ProcessingResult> results = new ArrayList<>();
+        processDatasets(Arrays.asList(datasets));
+    }
 
+    /**
+     * Processes every dataset and writes the summary report. With parallelism > 1
+     * datasets run concurrently on a bounded executor; each dataset's console
+     * report is buffered and printed as one block, and results keep input order.
+     * With exportThreads > 0 the result files are written by a background export
+     * stage; the summary waits for it and lists any dataset whose export failed.
+     */
+    public List<ProcessingResult> processDatasets(List<String> datasets) throws IOException {
+        List<String> existing = new ArrayList<>();
         for (String dataset : datasets) {
             if (new File(dataset).exists()) {
+                existing.add(dataset);
+            } else {
+                System.out.println("Dataset not found: " + dataset);
+            }
+        }
+
+        List<ProcessingResult> results = new ArrayList<>();
+        Map<String, Throwable> exportFailures = Collections.emptyMap();
+        AsyncExporter exporter = exportThreads > 0
+                ? new AsyncExporter(exportThreads, EXPORT_QUEUE_PER_THREAD * exportThreads)
+                : null;
+
+        try {
+            processAll(existing, results, exporter);
+            if (exporter != null) {
+                // Writers finish in any order; report failures in input order
+                Map<String, Throwable> failed = exporter.awaitCompletion();
+                exportFailures = new LinkedHashMap<>();
+                for (String dataset : existing) {
+                    if (failed.containsKey(dataset)) {
+                        exportFailures.put(dataset, failed.get(dataset));
+                    }
+                }
+            }
+        } finally {
+            if (exporter != null) {
+                exporter.close();
+            }
+        }
+
+        generateSummaryReport(results, exportFailures);
+        return results;
+    }
+
+    private void processAll(List<String> existing, List<ProcessingResult> results, AsyncExporter exporter)
+            throws IOException {
+        if (parallelism <= 1 || existing.size() <= 1) {
+            for (String dataset : existing) {
                 try {
-                    ProcessingResult result = processDataset(dataset);
+                    ProcessingResult result = processDataset(dataset, System.out, exporter);
                     results.add(result);
                 } catch (Exception e) {
-                    System.err.println("Error processing " + dataset + ": " + e.getMessage());
-                    e.printStackTrace();
+                    reportFailure(dataset, e);
                 }
-            } else {
-                System.out.println("Dataset not found: " + dataset);
+            }
+        } else {
+            ExecutorService executor = newExecutor(Math.min(parallelism, existing.size()));
+            try {
+                List<Future<ProcessingResult>> futures = new ArrayList<>();
+                for (String dataset : existing) {
+                    futures.add(executor.submit(() -> processBuffered(dataset, exporter)));
+                }
+
+                for (int i = 0; i < futures.size(); i++) {
+                    try {
+                        results.add(futures.get(i).get());
+                    } catch (ExecutionException e) {
+                        reportFailure(existing.get(i), e.getCause());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IOException("Interrupted while processing datasets", e);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
             }
         }
+    }
 
-        generateSummaryReport(results);
+    private ProcessingResult processBuffered(String dataset, AsyncExporter exporter) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buffer, false, StandardCharsets.UTF_8);
+        try {
+            return processDataset(dataset, out, exporter);
+        } finally {
+            out.flush();
+            synchronized (System.out) {
+                System.out.print(buffer.toString(StandardCharsets.UTF_8));
+                System.out.flush();
+            }
+        }
+    }
+
+    private void reportFailure(String dataset, Throwable e) {
+        synchronized (System.err) {
+            System.err.println("Error processing " + dataset + ": " + e.getMessage());
+            e.printStackTrace();
+        }
     }
 
-    private void generateSummaryReport(List<ProcessingResult> results) throws IOException {
+    // Virtual threads when the runtime has them (Java 21+), platform threads otherwise
+    private static ExecutorService newExecutor(int threads) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            ThreadFactory factory = (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+                    .getMethod("factory").invoke(builder);
+            return Executors.newFixedThreadPool(threads, factory);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    private void generateSummaryReport(List<ProcessingResult> results, Map<String, Throwable> exportFailures)
+            throws IOException {
         System.out.println("\n" + "=".repeat(80));
         System.out.println("SUMMARY REPORT FOR ALL DATASETS");
         System.out.println("=".repeat(80));
@@ -330,35 +660,59 @@ public class GraphProcessor {
         List<Map<String, Object>> summaryData = new ArrayList<>();
 
         for (ProcessingResult result : results) {
+            // A hit ran no stage: its time is the lookup, the replayed times go in the cache line
+            boolean hit = result.cacheHit;
+            long elapsed = hit ? result.cacheLookupTime : result.totalRealTime;
             System.out.printf("%-12s %-8d %-8d %-8d %-15d %-12s%n",
                     result.datasetName,
                     result.originalGraph.getVertices(),
-                    countEdges(result.originalGraph),
+                    result.originalGraph.getEdgeCount(),
                     result.sccs.size(),
                     result.criticalPathLength,
-                    formatNanos(result.totalRealTime));
+                    formatNanos(elapsed) + (hit ? " (cached)" : ""));
 
             // Prepare data for export
             Map<String, Object> data = new LinkedHashMap<>();
             data.put("dataset", result.datasetName);
             data.put("nodes", result.originalGraph.getVertices());
-            data.put("edges", countEdges(result.originalGraph));
+            data.put("edges", result.originalGraph.getEdgeCount());
             data.put("sccs", result.sccs.size());
             data.put("criticalPathLength", result.criticalPathLength);
-            data.put("totalTime", result.totalRealTime);
-            data.put("sccTime", result.sccRealTime);
-            data.put("condensationTime", result.condensationTime);
-            data.put("topoTime", result.topoRealTime);
-            data.put("spTime", result.spRealTime);
-            data.put("cpTime", result.cpRealTime);
+            data.put("totalTime", elapsed);
+            data.put("sccTime", hit ? 0L : result.sccRealTime);
+            data.put("condensationTime", hit ? 0L : result.condensationTime);
+            data.put("topoTime", hit ? 0L : result.topoRealTime);
+            data.put("spTime", hit ? 0L : result.spRealTime);
+            data.put("cpTime", hit ? 0L : result.cpRealTime);
+            if (cache != null) {
+                data.put("cacheHit", result.cacheHit);
+            }
 
             summaryData.add(data);
-            totalTime += result.totalRealTime;
+            totalTime += elapsed;
         }
 
         System.out.println("-".repeat(80));
         System.out.printf("Total processing time for all datasets: %s%n", formatNanos(totalTime));
 
+        if (cache != null) {
+            long lookupTime = 0;
+            for (ProcessingResult result : results) {
+                lookupTime += result.cacheHit ? result.cacheLookupTime : 0;
+            }
+            System.out.printf("Result cache: %d hits, %d misses, %d entries (%d bytes); "
+                            + "hits replayed %s of analysis in %s%n",
+                    cache.getHits(), cache.getMisses(), cache.getEntryCount(), cache.getSizeBytes(),
+                    formatNanos(cache.getSavedTime()), formatNanos(lookupTime));
+        }
+
+        if (!exportFailures.isEmpty()) {
+            System.out.println("Export failures: " + exportFailures.size());
+            for (Map.Entry<String, Throwable> failure : exportFailures.entrySet()) {
+                System.out.println("  " + failure.getKey() + ": " + failure.getValue().getMessage());
+            }
+        }
+
         // Export summary results
         exportSummaryResults(summaryData);
     }
@@ -378,29 +732,31 @@ public class GraphProcessor {
         System.out.println("  - " + resultsDir + "/summary.json");
     }
 
-    private int countEdges(Graph graph) {
-        int count = 0;
-        for (int i = 0; i < graph.getVertices(); i++) {
-            count += graph.getNeighbors(i).size();
-        }
-        return count;
-    }
-
     /**
      * Inner class to hold processing results for a single dataset
      */
     public static class ProcessingResult {
         public String datasetName;
-        public Graph originalGraph;
-        public GraphData graphData;
+        public WeightedGraph originalGraph;
+        public GraphMetadata metadata;
+        // sccs, componentOrder and taskOrder are read-only views over primitive arrays
+        public SCCResult components;
         public List<List<Integer>> sccs;
-        public Graph condensationGraph;
+        public WeightedGraph condensationGraph;
         public List<Integer> componentOrder;
         public List<Integer> taskOrder;
+        // Source task from the dataset and the condensation component holding it
+        public int sourceVertex;
+        public int sourceComponent;
         public int[] shortestDistances;
         public List<Integer> optimalPath;
         public List<Integer> criticalPath;
         public int criticalPathLength;
+        // Only built with --reachability
+        public ReachabilityIndex reachabilityIndex;
+        // Replayed from the result cache; the stage times are those of the original run
+        public boolean cacheHit;
+        public long cacheLookupTime;
 
         // Real time measurements (in nanoseconds)
         public long totalRealTime;
@@ -416,13 +772,120 @@ public class GraphProcessor {
         public Metrics criticalPathMetrics;
     }
 
+    /**
+     * Command line options shared by GraphProcessor and Main
+     */
+    public static class Options {
+        public SCCAlgorithm sccAlgorithm = SCCAlgorithm.KOSARAJU;
+        public CondensationWeight condensationWeight = CondensationWeight.FIRST;
+        public boolean countOperations = true;
+        public int parallelism = 1;
+        public boolean parallelTopo = false;
+        public boolean reachability = false;
+        public boolean compactJson = false;
+        public boolean csvTables = false;
+        public boolean gzipCsv = false;
+        // 0 writes results inline; N > 0 hands them to N background writer threads
+        public int exportThreads = 0;
+        public Verbosity verbosity = Verbosity.FULL;
+        public boolean progress = false;
+        // Loopback port for AnalysisServer; 0 serves stdin/stdout
+        public int port = 0;
+        // Reuse scratch arrays across algorithm runs on the same thread
+        public boolean workspace = false;
+        // Result cache directory, null when caching is off
+        public String cacheDirectory = null;
+        public long cacheMaxBytes = 256L << 20;
+        public final List<String> inputs = new ArrayList<>();
+
+        public Options copy() {
+            Options copy = new Options();
+            copy.sccAlgorithm = sccAlgorithm;
+            copy.condensationWeight = condensationWeight;
+            copy.countOperations = countOperations;
+            copy.parallelism = parallelism;
+            copy.parallelTopo = parallelTopo;
+            copy.reachability = reachability;
+            copy.compactJson = compactJson;
+            copy.csvTables = csvTables;
+            copy.gzipCsv = gzipCsv;
+            copy.exportThreads = exportThreads;
+            copy.verbosity = verbosity;
+            copy.progress = progress;
+            copy.port = port;
+            copy.workspace = workspace;
+            copy.cacheDirectory = cacheDirectory;
+            copy.cacheMaxBytes = cacheMaxBytes;
+            copy.inputs.addAll(inputs);
+            return copy;
+        }
+
+        public static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (arg.startsWith("--scc=")) {
+                    options.sccAlgorithm = SCCAlgorithm.fromName(arg.substring("--scc=".length()));
+                } else if (arg.startsWith("--condensation-weight=")) {
+                    options.condensationWeight = CondensationWeight.fromName(
+                            arg.substring("--condensation-weight=".length()));
+                } else if ("--parallel".equals(arg)) {
+                    options.parallelism = Runtime.getRuntime().availableProcessors();
+                } else if (arg.startsWith("--parallel=")) {
+                    options.parallelism = Integer.parseInt(arg.substring("--parallel=".length()));
+                } else if ("--parallel-topo".equals(arg)) {
+                    options.parallelTopo = true;
+                } else if ("--reachability".equals(arg)) {
+                    options.reachability = true;
+                } else if ("--compact-json".equals(arg)) {
+                    options.compactJson = true;
+                } else if ("--csv-tables".equals(arg)) {
+                    options.csvTables = true;
+                } else if ("--gzip-csv".equals(arg)) {
+                    options.gzipCsv = true;
+                } else if ("--async-export".equals(arg)) {
+                    options.exportThreads = 2;
+                } else if (arg.startsWith("--async-export=")) {
+                    options.exportThreads = Integer.parseInt(arg.substring("--async-export=".length()));
+                } else if (arg.startsWith("--verbosity=")) {
+                    options.verbosity = Verbosity.fromName(arg.substring("--verbosity=".length()));
+                } else if ("--quiet".equals(arg)) {
+                    options.verbosity = Verbosity.QUIET;
+                } else if ("--progress".equals(arg)) {
+                    options.progress = true;
+                } else if (arg.startsWith("--port=")) {
+                    options.port = Integer.parseInt(arg.substring("--port=".length()));
+                } else if ("--cache".equals(arg)) {
+                    options.cacheDirectory = "results/cache";
+                } else if (arg.startsWith("--cache=")) {
+                    options.cacheDirectory = arg.substring("--cache=".length());
+                } else if (arg.startsWith("--cache-size=")) {
+                    // Megabytes
+                    options.cacheMaxBytes = Long.parseLong(arg.substring("--cache-size=".length())) << 20;
+                } else if ("--workspace".equals(arg)) {
+                    options.workspace = true;
+                } else if ("--no-metrics".equals(arg)) {
+                    options.countOperations = false;
+                } else if (arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+                } else {
+                    options.inputs.add(arg);
+                }
+            }
+            return options;
+        }
+    }
+
     public static void main(String[] args) {
         try {
-            GraphProcessor processor = new GraphProcessor();
+            Options options = Options.parse(args);
+            GraphProcessor processor = new GraphProcessor(options);
 
-            if (args.length > 0) {
+            if (options.inputs.size() == 1) {
                 // Process specific dataset
-                processor.processDataset(args[0]);
+                processor.processDataset(options.inputs.get(0));
+            } else if (!options.inputs.isEmpty()) {
+                // Process the given datasets as one batch
+                processor.processDatasets(options.inputs);
             } else {
                 // Process all datasets
                 processor.processAllDatasets();
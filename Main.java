@@ -1,7 +1,13 @@
 package graph;
 
+import graph.data.BinaryGraphFormat;
 import graph.data.DatasetGenerator;
+import graph.data.GraphLoader;
+import graph.data.LoadedGraph;
 import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 
 public class Main {
@@ -14,16 +20,39 @@ public class Main {
                 new DatasetGenerator().generateAllDatasets();
             }
 
-            GraphProcessor processor = new GraphProcessor();
+            // generate <family> <vertices> <edges> <output> [options]: one synthetic graph
+            if (args.length > 1 && "generate".equals(args[0])) {
+                String[] spec = Arrays.copyOfRange(args, 1, args.length);
+                new DatasetGenerator().generateSynthetic(DatasetGenerator.parseSpec(Arrays.asList(spec)),
+                        DatasetGenerator.syntheticOutput(spec));
+                return;
+            }
+
+            GraphProcessor.Options options = GraphProcessor.Options.parse(args);
+            GraphProcessor processor = new GraphProcessor(options);
 
-            if (args.length > 0) {
-                if ("generate".equals(args[0])) {
+            if (!options.inputs.isEmpty()) {
+                if ("generate".equals(options.inputs.get(0))) {
                     // Regenerate datasets
                     System.out.println("🔄 Regenerating test datasets...");
                     new DatasetGenerator().generateAllDatasets();
-                } else {
+                } else if ("serve".equals(options.inputs.get(0))) {
+                    // Stay resident and answer analysis requests (stdin, or --port=N on loopback)
+                    AnalysisServer server = new AnalysisServer(options);
+                    if (options.port > 0) {
+                        server.listen(options.port);
+                    } else {
+                        server.serve(System.in, System.out);
+                    }
+                } else if ("convert".equals(options.inputs.get(0))) {
+                    // Convert a dataset to the binary graph format
+                    convert(options.inputs);
+                } else if (options.inputs.size() == 1) {
                     // Process specific dataset
-                    processor.processDataset(args[0]);
+                    processor.processDataset(options.inputs.get(0));
+                } else {
+                    // Process the given datasets as one batch
+                    processor.processDatasets(options.inputs);
                 }
             } else {
                 // Process all datasets
@@ -36,4 +65,17 @@ public class Main {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    private static void convert(List<String> inputs) throws IOException {
+        if (inputs.size() < 2) {
+            throw new IllegalArgumentException("Usage: convert <dataset> [output" + BinaryGraphFormat.EXTENSION + "]");
+        }
+        String input = inputs.get(1);
+        String output = inputs.size() > 2 ? inputs.get(2)
+                : input.replaceFirst("\\.json$", "") + BinaryGraphFormat.EXTENSION;
+
+        LoadedGraph loaded = new GraphLoader().load(new File(input));
+        BinaryGraphFormat.write(loaded, new File(output));
+        System.out.println("💾 Wrote " + output);
+    }
+}
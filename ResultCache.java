@@ -0,0 +1,412 @@
+package graph;
+
+import graph.data.LoadedGraph;
+import graph.metrics.Metrics;
+import graph.metrics.Operation;
+import graph.metrics.OperationCounter;
+import graph.model.CSRGraph;
+import graph.model.WeightedGraph;
+import graph.scc.SCCResult;
+import graph.util.IntArrays;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * On-disk cache of analysis results keyed by the SHA-256 of the graph and
+ * the analysis settings. Each entry is one binary file of int arrays: the
+ * SCCs, condensation, component order, distances, paths, stage times and
+ * operation counts. Entries are evicted least recently used first once the
+ * directory exceeds maxBytes. Thread-safe.
+ *
+ * The key covers n, the directed flag, the source, the weight model, the
+ * durations and every vertex's arcs in adjacency order. Arcs are not sorted
+ * within a vertex: that order decides which weight FIRST keeps and how
+ * components are numbered, so graphs differing in it are different entries.
+ */
+public final class ResultCache {
+    private static final int MAGIC = 0x43524353; // "SCRC"
+    // 2: distances start at the source vertex's component, not at component id source
+    private static final int VERSION = 2;
+    private static final String SUFFIX = ".result";
+
+    private final File directory;
+    private final long maxBytes;
+    // Key -> entry size in bytes, least recently used first
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private int hits;
+    private int misses;
+    private long savedTime;
+
+    public ResultCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        directory.mkdirs();
+
+        // Rebuild the recency order from modification times; hits touch their file
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files != null) {
+            Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+            for (File file : files) {
+                String name = file.getName();
+                entries.put(name.substring(0, name.length() - SUFFIX.length()), file.length());
+                totalBytes += file.length();
+            }
+        }
+    }
+
+    /**
+     * Hex SHA-256 of the graph in adjacency order plus the settings that
+     * change the results (algorithm choices, counting on or off)
+     */
+    public static String key(LoadedGraph loaded, String settings) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+        WeightedGraph graph = loaded.graph;
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+        buffer.putInt(VERSION).putInt(graph.getVertices()).putInt(graph.isDirected() ? 1 : 0);
+        Integer source = loaded.metadata.getSource();
+        buffer.putInt(source != null ? 1 : 0).putInt(source != null ? source : 0);
+        putText(digest, buffer, String.valueOf(loaded.metadata.getWeightModel()));
+        putText(digest, buffer, settings);
+
+        buffer.putInt(loaded.durations != null ? loaded.durations.length : -1);
+        if (loaded.durations != null) {
+            for (int duration : loaded.durations) {
+                putInt(digest, buffer, duration);
+            }
+        }
+        for (int u = 0, n = graph.getVertices(); u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            putInt(digest, buffer, degree);
+            for (int i = 0; i < degree; i++) {
+                putInt(digest, buffer, graph.getNeighbor(u, i));
+                putInt(digest, buffer, graph.getNeighborWeight(u, i));
+            }
+        }
+        buffer.flip();
+        digest.update(buffer);
+
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * The cached result for key, attached to the loaded graph, or null on a
+     * miss. Unreadable entries are dropped and count as misses.
+     */
+    public GraphProcessor.ProcessingResult get(String key, LoadedGraph loaded, String datasetName) {
+        long start = System.nanoTime();
+        synchronized (this) {
+            if (!entries.containsKey(key)) {
+                misses++;
+                return null;
+            }
+        }
+        File file = file(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            GraphProcessor.ProcessingResult result = read(in, loaded, datasetName);
+            file.setLastModified(System.currentTimeMillis());
+            result.cacheHit = true;
+            result.cacheLookupTime = System.nanoTime() - start;
+            synchronized (this) {
+                entries.get(key);
+                hits++;
+                savedTime += result.totalRealTime;
+            }
+            return result;
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                remove(key);
+                misses++;
+            }
+            return null;
+        }
+    }
+
+    // Stores result under key, then evicts least recently used entries beyond maxBytes
+    public void put(String key, GraphProcessor.ProcessingResult result) throws IOException {
+        File target = file(key);
+        File temp = File.createTempFile(key, ".tmp", directory);
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(temp), 1 << 16))) {
+                write(out, result);
+            }
+            // Readers never see a partial entry
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+
+        synchronized (this) {
+            Long previous = entries.put(key, target.length());
+            totalBytes += target.length() - (previous != null ? previous : 0);
+            Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                totalBytes -= entry.getValue();
+                eldest.remove();
+                file(entry.getKey()).delete();
+            }
+        }
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    // Analysis time recorded in the entries that were hit, in nanoseconds
+    public synchronized long getSavedTime() {
+        return savedTime;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getSizeBytes() {
+        return totalBytes;
+    }
+
+    private void remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        file(key).delete();
+    }
+
+    private File file(String key) {
+        return new File(directory, key + SUFFIX);
+    }
+
+    private static void write(DataOutputStream out, GraphProcessor.ProcessingResult result) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        SCCResult components = result.components;
+        out.writeInt(components.count);
+        for (int c = 0; c < components.count; c++) {
+            out.writeInt(components.size(c));
+            for (int i = components.offsets[c]; i < components.offsets[c + 1]; i++) {
+                out.writeInt(components.members[i]);
+            }
+        }
+
+        WeightedGraph condensation = result.condensationGraph;
+        out.writeBoolean(condensation.isDirected());
+        out.writeInt(condensation.getVertices());
+        out.writeInt(condensation.getEdgeCount());
+        for (int u = 0; u < condensation.getVertices(); u++) {
+            int degree = condensation.getOutDegree(u);
+            out.writeInt(degree);
+            for (int i = 0; i < degree; i++) {
+                out.writeInt(condensation.getNeighbor(u, i));
+                out.writeInt(condensation.getNeighborWeight(u, i));
+            }
+        }
+
+        writeArray(out, IntArrays.toArray(result.componentOrder));
+        out.writeInt(result.shortestDistances.length);
+        for (int distance : result.shortestDistances) {
+            out.writeInt(distance);
+        }
+        out.writeBoolean(result.optimalPath != null);
+        if (result.optimalPath != null) {
+            writeList(out, result.optimalPath);
+        }
+        writeList(out, result.criticalPath);
+        out.writeInt(result.criticalPathLength);
+
+        out.writeLong(result.sccRealTime);
+        out.writeLong(result.condensationTime);
+        out.writeLong(result.topoRealTime);
+        out.writeLong(result.spRealTime);
+        out.writeLong(result.cpRealTime);
+        out.writeLong(result.totalRealTime);
+
+        writeMetrics(out, result.sccMetrics);
+        writeMetrics(out, result.topoMetrics);
+        writeMetrics(out, result.shortestPathMetrics);
+        writeMetrics(out, result.criticalPathMetrics);
+    }
+
+    private static GraphProcessor.ProcessingResult read(DataInputStream in, LoadedGraph loaded, String datasetName)
+            throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a cache entry of version " + VERSION);
+        }
+        GraphProcessor.ProcessingResult result = new GraphProcessor.ProcessingResult();
+        result.datasetName = datasetName;
+        result.originalGraph = loaded.graph;
+        result.metadata = loaded.metadata;
+
+        int count = in.readInt();
+        int n = loaded.graph.getVertices();
+        int[] componentOf = new int[n];
+        int[] offsets = new int[count + 1];
+        int[] members = new int[n];
+        for (int c = 0, next = 0; c < count; c++) {
+            for (int i = 0, size = in.readInt(); i < size; i++) {
+                int v = in.readInt();
+                componentOf[v] = c;
+                members[next++] = v;
+            }
+            offsets[c + 1] = next;
+        }
+        SCCResult components = new SCCResult(count, componentOf, offsets, members);
+        result.components = components;
+        result.sccs = components.asLists();
+        Integer source = loaded.metadata.getSource();
+        result.sourceVertex = source != null ? source : 0;
+        result.sourceComponent = componentOf[result.sourceVertex];
+
+        boolean directed = in.readBoolean();
+        int k = in.readInt();
+        int arcs = in.readInt();
+        int[] sources = new int[arcs];
+        int[] targets = new int[arcs];
+        int[] weights = new int[arcs];
+        for (int u = 0, arc = 0; u < k; u++) {
+            for (int i = 0, degree = in.readInt(); i < degree; i++, arc++) {
+                sources[arc] = u;
+                targets[arc] = in.readInt();
+                weights[arc] = in.readInt();
+            }
+        }
+        result.condensationGraph = CSRGraph.fromEdgeArrays(k, directed, sources, targets, weights, arcs);
+
+        int[] order = readArray(in);
+        result.componentOrder = IntArrays.asList(order);
+        result.taskOrder = IntArrays.asList(components.expand(order));
+
+        int[] distances = new int[in.readInt()];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = in.readInt();
+        }
+        result.shortestDistances = distances;
+        result.optimalPath = in.readBoolean() ? readList(in) : null;
+        result.criticalPath = readList(in);
+        result.criticalPathLength = in.readInt();
+
+        result.sccRealTime = in.readLong();
+        result.condensationTime = in.readLong();
+        result.topoRealTime = in.readLong();
+        result.spRealTime = in.readLong();
+        result.cpRealTime = in.readLong();
+        result.totalRealTime = in.readLong();
+
+        result.sccMetrics = readMetrics(in);
+        result.topoMetrics = readMetrics(in);
+        result.shortestPathMetrics = readMetrics(in);
+        result.criticalPathMetrics = readMetrics(in);
+        return result;
+    }
+
+    private static void writeList(DataOutputStream out, List<Integer> values) throws IOException {
+        out.writeInt(values.size());
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeArray(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readArray(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private static List<Integer> readList(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<Integer> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readInt());
+        }
+        return values;
+    }
+
+    // Counts in Operation order; NONE is stored as all zeros and restored as counters
+    private static void writeMetrics(DataOutputStream out, Metrics metrics) throws IOException {
+        Operation[] operations = Operation.values();
+        out.writeInt(operations.length);
+        for (Operation operation : operations) {
+            out.writeLong(metrics.getOperationCount(operation));
+        }
+    }
+
+    private static Metrics readMetrics(DataInputStream in) throws IOException {
+        Operation[] operations = Operation.values();
+        if (in.readInt() != operations.length) {
+            throw new IOException("Cache entry has a different operation set");
+        }
+        OperationCounter metrics = new OperationCounter();
+        for (Operation operation : operations) {
+            metrics.add(operation, in.readLong());
+        }
+        return metrics;
+    }
+
+    private static void putText(MessageDigest digest, ByteBuffer buffer, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        putInt(digest, buffer, bytes.length);
+        for (byte b : bytes) {
+            if (!buffer.hasRemaining()) {
+                drain(digest, buffer);
+            }
+            buffer.put(b);
+        }
+    }
+
+    private static void putInt(MessageDigest digest, ByteBuffer buffer, int value) {
+        if (buffer.remaining() < 4) {
+            drain(digest, buffer);
+        }
+        buffer.putInt(value);
+    }
+
+    private static void drain(MessageDigest digest, ByteBuffer buffer) {
+        buffer.flip();
+        digest.update(buffer);
+        buffer.clear();
+    }
+}
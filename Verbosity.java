@@ -0,0 +1,26 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * How much of each dataset's report GraphProcessor prints to the console.
+ * Result files and the batch summary are written at every level.
+ */
+public enum Verbosity {
+    // Nothing per dataset, only the batch summary table
+    QUIET,
+    // Counts, lengths and timings per stage, no per-component listings
+    SUMMARY,
+    // Every SCC, order, distance and path
+    FULL;
+
+    public static Verbosity fromName(String name) {
+        for (Verbosity verbosity : values()) {
+            if (verbosity.name().equalsIgnoreCase(name)) {
+                return verbosity;
+            }
+        }
+        throw new IllegalArgumentException("Unknown verbosity: " + name
+                + " (expected one of " + Arrays.toString(values()) + ")");
+    }
+}
@@ -0,0 +1,83 @@
+package graph.bench;
+
+import graph.model.CSRGraph;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic graphs for the JMH benchmarks.
+ */
+public final class BenchmarkGraphs {
+
+    public enum Shape {
+        // One long path: worst case for recursion depth
+        CHAIN,
+        // Wide layers with edges only to the next layer: a DAG with large frontiers
+        LAYERED,
+        // Uniform random arcs: one giant SCC plus stragglers
+        RANDOM,
+        // Dense cycles of 16 vertices joined by sparse forward edges: many mid-sized SCCs
+        CLUSTERED
+    }
+
+    private static final int AVERAGE_DEGREE = 4;
+    private static final int CLUSTER_SIZE = 16;
+
+    private BenchmarkGraphs() {}
+
+    public static CSRGraph generate(Shape shape, int vertices, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        CSRGraph.Builder builder = new CSRGraph.Builder(vertices, true, vertices * AVERAGE_DEGREE);
+
+        switch (shape) {
+            case CHAIN:
+                for (int i = 0; i + 1 < vertices; i++) {
+                    builder.addEdge(i, i + 1, weight(random));
+                }
+                break;
+
+            case LAYERED: {
+                int width = Math.max(1, (int) Math.sqrt(vertices));
+                for (int u = 0; u < vertices; u++) {
+                    int nextLayer = (u / width + 1) * width;
+                    if (nextLayer >= vertices) {
+                        break;
+                    }
+                    int span = Math.min(width, vertices - nextLayer);
+                    for (int k = 0; k < AVERAGE_DEGREE; k++) {
+                        builder.addEdge(u, nextLayer + random.nextInt(span), weight(random));
+                    }
+                }
+                break;
+            }
+
+            case RANDOM:
+                for (long e = 0; e < (long) vertices * AVERAGE_DEGREE; e++) {
+                    builder.addEdge(random.nextInt(vertices), random.nextInt(vertices), weight(random));
+                }
+                break;
+
+            case CLUSTERED:
+                for (int start = 0; start < vertices; start += CLUSTER_SIZE) {
+                    int end = Math.min(vertices, start + CLUSTER_SIZE);
+                    for (int u = start; u < end; u++) {
+                        builder.addEdge(u, u + 1 < end ? u + 1 : start, weight(random));
+                    }
+                    if (end < vertices) {
+                        builder.addEdge(start + random.nextInt(end - start),
+                                end + random.nextInt(Math.min(CLUSTER_SIZE, vertices - end)), weight(random));
+                    }
+                }
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+
+        return builder.build();
+    }
+
+    private static int weight(SplittableRandom random) {
+        return 1 + random.nextInt(9);
+    }
+}
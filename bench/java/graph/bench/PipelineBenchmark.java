@@ -0,0 +1,103 @@
+package graph.bench;
+
+import graph.dagsp.CriticalPath;
+import graph.dagsp.DAGShortestPath;
+import graph.metrics.Metrics;
+import graph.model.CSRGraph;
+import graph.model.WeightedGraph;
+import graph.scc.KosarajuSCC;
+import graph.scc.SCCResult;
+import graph.scc.TarjanSCC;
+import graph.topo.KahnsTopologicalSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per pipeline stage, each fed with the output of the
+ * previous stages computed once in setup. Counting is disabled
+ * (Metrics.NONE) so only algorithm cost is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xss512m", "-Xmx4g"})
+public class PipelineBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int vertices;
+
+    @Param({"CHAIN", "LAYERED", "RANDOM", "CLUSTERED"})
+    public BenchmarkGraphs.Shape shape;
+
+    private CSRGraph graph;
+    private SCCResult sccs;
+    private WeightedGraph condensation;
+    private int[] componentOrder;
+    private int source;
+
+    private KosarajuSCC kosaraju;
+    private TarjanSCC tarjan;
+    private KahnsTopologicalSort topoSort;
+    private DAGShortestPath shortestPath;
+    private CriticalPath criticalPath;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = BenchmarkGraphs.generate(shape, vertices, 42L);
+
+        kosaraju = new KosarajuSCC(Metrics.NONE);
+        tarjan = new TarjanSCC(Metrics.NONE);
+        topoSort = new KahnsTopologicalSort(Metrics.NONE);
+        shortestPath = new DAGShortestPath(Metrics.NONE);
+        criticalPath = new CriticalPath(Metrics.NONE);
+
+        sccs = kosaraju.findComponents(graph);
+        condensation = kosaraju.buildCondensationGraph(graph, sccs);
+        componentOrder = topoSort.order(condensation);
+        source = componentOrder[0];
+    }
+
+    @Benchmark
+    public SCCResult kosarajuFindSCCs() {
+        return kosaraju.findComponents(graph);
+    }
+
+    @Benchmark
+    public SCCResult tarjanFindSCCs() {
+        return tarjan.findComponents(graph);
+    }
+
+    @Benchmark
+    public WeightedGraph buildCondensationGraph() {
+        return kosaraju.buildCondensationGraph(graph, sccs);
+    }
+
+    @Benchmark
+    public int[] topologicalOrder() {
+        return topoSort.order(condensation);
+    }
+
+    @Benchmark
+    public int[] shortestPaths() {
+        return shortestPath.shortestPaths(condensation, source, componentOrder);
+    }
+
+    @Benchmark
+    public CriticalPath.CriticalPathResult findCriticalPath() {
+        return criticalPath.findCriticalPath(condensation, componentOrder);
+    }
+}
@@ -1,61 +1,219 @@
 package graph.dagsp;
 
-import graph.model.Graph;
+import graph.model.WeightedGraph;
 import graph.metrics.Metrics;
+import graph.metrics.Operation;
 import graph.metrics.OperationCounter;
+import graph.util.IntArrays;
+import graph.util.Workspace;
 import java.util.*;
 
 public class CriticalPath {
-    private Metrics metrics;
+    private final Metrics metrics;
+    private final Workspace workspace;
 
     public CriticalPath() {
-        this.metrics = new OperationCounter();
+        this(new OperationCounter());
     }
 
-    public CriticalPathResult findCriticalPath(Graph graph, List<Integer> topologicalOrder) {
-        metrics.reset(); // Reset operation counts only
+    public CriticalPath(Metrics metrics) {
+        this(metrics, Workspace.NONE);
+    }
+
+    // Scratch arrays come from workspace; returned results never do
+    public CriticalPath(Metrics metrics, Workspace workspace) {
+        this.metrics = metrics;
+        this.workspace = workspace;
+    }
+
+    public CriticalPathResult findCriticalPath(WeightedGraph graph, int[] topologicalOrder) {
+        return findCriticalPath(graph, topologicalOrder, null);
+    }
+
+    public CriticalPathResult findCriticalPath(WeightedGraph graph, List<Integer> topologicalOrder) {
+        return findCriticalPath(graph, IntArrays.toArray(topologicalOrder), null);
+    }
+
+    public CriticalPathResult findCriticalPath(WeightedGraph graph, List<Integer> topologicalOrder,
+                                               int[] durations) {
+        return findCriticalPath(graph, IntArrays.toArray(topologicalOrder), durations);
+    }
+
+    /**
+     * With durations, the path length is the sum of its vertices' durations
+     * (the finish time of its last task) and edge weights are ignored.
+     */
+    public CriticalPathResult findCriticalPath(WeightedGraph graph, int[] topologicalOrder,
+                                               int[] durations) {
+        metrics.reset(); // Reset operation counts and elapsed time
+        metrics.startTimer();
 
         int n = graph.getVertices();
         int[] longest = new int[n];
-        int[] predecessor = new int[n];
-        Arrays.fill(predecessor, -1);
+        int[] predecessor = workspace.ints(n, -1);
+
+        try {
+            // Initialize distances: every task can start at time 0
+            for (int i = 0; i < n; i++) {
+                longest[i] = durations == null ? 0 : durations[i];
+            }
+
+            long processed = 0;
+            long relaxations = 0;
+            long updates = 0;
+
+            // Find longest paths
+            for (int u : topologicalOrder) {
+                processed++;
 
-        // Initialize distances
-        for (int i = 0; i < n; i++) {
-            longest[i] = 0;
+                for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                    int v = graph.getNeighbor(u, i);
+                    int newLength = longest[u] + (durations == null ? graph.getNeighborWeight(u, i) : durations[v]);
+                    relaxations++;
+
+                    if (newLength > longest[v]) {
+                        longest[v] = newLength;
+                        predecessor[v] = u;
+                        updates++;
+                    }
+                }
+            }
+
+            metrics.add(Operation.TOPO_PROCESSING, processed);
+            metrics.add(Operation.RELAXATION, relaxations);
+            metrics.add(Operation.DISTANCE_UPDATE, updates);
+
+            // Find the maximum distance and corresponding vertex
+            int maxDist = 0;
+            int endVertex = 0;
+            for (int i = 0; i < n; i++) {
+                if (longest[i] > maxDist) {
+                    maxDist = longest[i];
+                    endVertex = i;
+                }
+            }
+
+            // Reconstruct critical path
+            List<Integer> path = reconstructPath(predecessor, endVertex);
+            metrics.stopTimer();
+
+            return new CriticalPathResult(path, maxDist, longest);
+        } finally {
+            workspace.release(predecessor);
         }
+    }
 
-        // Find longest paths
+    public CPMResult analyze(WeightedGraph graph, List<Integer> topologicalOrder) {
+        return analyze(graph, topologicalOrder, null);
+    }
+
+    public CPMResult analyze(WeightedGraph graph, List<Integer> topologicalOrder, int[] durations) {
+        return analyze(graph, IntArrays.toArray(topologicalOrder), durations);
+    }
+
+    public CPMResult analyze(WeightedGraph graph, int[] topologicalOrder) {
+        return analyze(graph, topologicalOrder, null);
+    }
+
+    /**
+     * Critical path method over an existing topological order: one forward
+     * sweep for earliest times and one backward sweep for latest times and
+     * slack. Without durations, vertices are events and edges are activities
+     * whose duration is the edge weight. With durations, vertices are the
+     * activities: times are task start times, a task occupies durations[u]
+     * from its start, and every edge u -> v means v starts after u finishes.
+     */
+    public CPMResult analyze(WeightedGraph graph, int[] topologicalOrder, int[] durations) {
+        metrics.reset(); // Reset operation counts and elapsed time
+        metrics.startTimer();
+
+        int n = graph.getVertices();
+        int[] edgeOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            edgeOffsets[u + 1] = edgeOffsets[u] + graph.getOutDegree(u);
+        }
+        int edges = edgeOffsets[n];
+
+        long relaxations = 0;
+        long updates = 0;
+
+        // Forward pass: earliest event times
+        int[] earliest = new int[n];
         for (int u : topologicalOrder) {
-            metrics.incrementOperation("topo_processing");
+            for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                int candidate = earliest[u] + (durations == null ? graph.getNeighborWeight(u, i) : durations[u]);
+                relaxations++;
+                if (candidate > earliest[v]) {
+                    earliest[v] = candidate;
+                    updates++;
+                }
+            }
+        }
+
+        int projectLength = 0;
+        for (int u = 0; u < n; u++) {
+            projectLength = Math.max(projectLength, earliest[u] + (durations == null ? 0 : durations[u]));
+        }
 
-            for (Graph.Edge edge : graph.getNeighbors(u)) {
-                int v = edge.target;
-                int newLength = longest[u] + edge.weight;
-                metrics.incrementOperation("relaxation");
+        // Backward pass: latest event times, vertex slack and edge slack
+        int[] latest = new int[n];
+        int[] freeSlack = new int[n];
+        int[] edgeTotalSlack = new int[edges];
+        int[] edgeFreeSlack = new int[edges];
+        int criticalEdgeCount = 0;
+        for (int k = topologicalOrder.length - 1; k >= 0; k--) {
+            int u = topologicalOrder[k];
+            int duration = durations == null ? 0 : durations[u];
+            int latestU = projectLength - duration;
+            int free = projectLength - duration - earliest[u];
+            int base = edgeOffsets[u];
+            for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                int weight = durations == null ? graph.getNeighborWeight(u, i) : duration;
+                relaxations++;
 
-                if (newLength > longest[v]) {
-                    longest[v] = newLength;
-                    predecessor[v] = u;
-                    metrics.incrementOperation("distance_update");
+                latestU = Math.min(latestU, latest[v] - weight);
+                edgeTotalSlack[base + i] = latest[v] - earliest[u] - weight;
+                edgeFreeSlack[base + i] = earliest[v] - earliest[u] - weight;
+                free = Math.min(free, edgeFreeSlack[base + i]);
+                if (edgeTotalSlack[base + i] == 0) {
+                    criticalEdgeCount++;
                 }
             }
+            latest[u] = latestU;
+            freeSlack[u] = free;
         }
 
-        // Find the maximum distance and corresponding vertex
-        int maxDist = 0;
-        int endVertex = 0;
-        for (int i = 0; i < n; i++) {
-            if (longest[i] > maxDist) {
-                maxDist = longest[i];
-                endVertex = i;
+        int[] totalSlack = new int[n];
+        int criticalVertexCount = 0;
+        for (int u = 0; u < n; u++) {
+            totalSlack[u] = latest[u] - earliest[u];
+            if (totalSlack[u] == 0) {
+                criticalVertexCount++;
             }
         }
 
-        // Reconstruct critical path
-        List<Integer> path = reconstructPath(predecessor, endVertex);
+        int[] criticalVertices = new int[criticalVertexCount];
+        for (int u = 0, c = 0; u < n; u++) {
+            if (totalSlack[u] == 0) {
+                criticalVertices[c++] = u;
+            }
+        }
+        int[] criticalEdges = new int[criticalEdgeCount];
+        for (int e = 0, c = 0; e < edges; e++) {
+            if (edgeTotalSlack[e] == 0) {
+                criticalEdges[c++] = e;
+            }
+        }
 
-        return new CriticalPathResult(path, maxDist, longest);
+        metrics.add(Operation.TOPO_PROCESSING, 2L * topologicalOrder.length);
+        metrics.add(Operation.RELAXATION, relaxations);
+        metrics.add(Operation.DISTANCE_UPDATE, updates);
+        metrics.stopTimer();
+
+        return new CPMResult(projectLength, earliest, latest, totalSlack, freeSlack,
+                edgeOffsets, edgeTotalSlack, edgeFreeSlack, criticalVertices, criticalEdges);
     }
 
     private List<Integer> reconstructPath(int[] predecessor, int endVertex) {
@@ -85,4 +243,49 @@ public class CriticalPath {
             this.longestPaths = longestPaths;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * CPM times in flat arrays. Vertex arrays are indexed by vertex; edge
+     * arrays by edge index, where the edges of u occupy
+     * [edgeOffsets[u], edgeOffsets[u + 1]) in the graph's neighbor order.
+     * An activity u -> v starts at the earliest time of u at the earliest and
+     * at that plus its total slack at the latest.
+     */
+    public static class CPMResult {
+        public final int projectLength;
+        public final int[] earliestStart;
+        public final int[] latestStart;
+        public final int[] totalSlack;
+        public final int[] freeSlack;
+        public final int[] edgeOffsets;
+        public final int[] edgeTotalSlack;
+        public final int[] edgeFreeSlack;
+        // Zero-slack vertices and edge indices, ascending
+        public final int[] criticalVertices;
+        public final int[] criticalEdges;
+
+        public CPMResult(int projectLength, int[] earliestStart, int[] latestStart,
+                         int[] totalSlack, int[] freeSlack, int[] edgeOffsets,
+                         int[] edgeTotalSlack, int[] edgeFreeSlack,
+                         int[] criticalVertices, int[] criticalEdges) {
+            this.projectLength = projectLength;
+            this.earliestStart = earliestStart;
+            this.latestStart = latestStart;
+            this.totalSlack = totalSlack;
+            this.freeSlack = freeSlack;
+            this.edgeOffsets = edgeOffsets;
+            this.edgeTotalSlack = edgeTotalSlack;
+            this.edgeFreeSlack = edgeFreeSlack;
+            this.criticalVertices = criticalVertices;
+            this.criticalEdges = criticalEdges;
+        }
+
+        public int edgeIndex(int vertex, int neighborIndex) {
+            return edgeOffsets[vertex] + neighborIndex;
+        }
+
+        public boolean isCritical(int vertex) {
+            return totalSlack[vertex] == 0;
+        }
+    }
+}
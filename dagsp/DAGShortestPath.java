@@ -1,85 +1,443 @@
 package graph.dagsp;
 
-import graph.model.Graph;
+import graph.model.WeightedGraph;
 import graph.metrics.Metrics;
+import graph.metrics.Operation;
 import graph.metrics.OperationCounter;
+import graph.util.IntArrays;
+import graph.util.Workspace;
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
 
 public class DAGShortestPath {
-    private Metrics metrics;
+    // Sources relaxed together in one sweep; each edge is read once per tile
+    private static final int TILE_SOURCES = 8;
+    // Largest int[] the JVM reliably allocates
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final Metrics metrics;
+    private final Workspace workspace;
 
     public DAGShortestPath() {
-        this.metrics = new OperationCounter();
+        this(new OperationCounter());
+    }
+
+    public DAGShortestPath(Metrics metrics) {
+        this(metrics, Workspace.NONE);
+    }
+
+    // Scratch arrays come from workspace; returned distances and trees never do
+    public DAGShortestPath(Metrics metrics, Workspace workspace) {
+        this.metrics = metrics;
+        this.workspace = workspace;
     }
 
-    public int[] shortestPaths(Graph graph, int source, List<Integer> topologicalOrder) {
-        metrics.reset(); // Reset operation counts only
+    public int[] shortestPaths(WeightedGraph graph, int source, int[] topologicalOrder) {
+        int[] dist = new int[graph.getVertices()];
+        relax(graph, source, topologicalOrder, null, dist, null);
+        return dist;
+    }
 
+    public int[] shortestPaths(WeightedGraph graph, int source, List<Integer> topologicalOrder) {
+        return shortestPaths(graph, source, IntArrays.toArray(topologicalOrder));
+    }
+
+    /**
+     * Node-weighted variant: a path costs the sum of the durations of all
+     * its vertices, source included, and edge weights are ignored.
+     */
+    public int[] shortestPaths(WeightedGraph graph, int source, int[] topologicalOrder, int[] durations) {
+        int[] dist = new int[graph.getVertices()];
+        relax(graph, source, topologicalOrder, durations, dist, null);
+        return dist;
+    }
+
+    public int[] shortestPaths(WeightedGraph graph, int source, List<Integer> topologicalOrder, int[] durations) {
+        return shortestPaths(graph, source, IntArrays.toArray(topologicalOrder), durations);
+    }
+
+    /**
+     * Same relaxation as shortestPaths, additionally recording the
+     * predecessor of every reached vertex so paths can be read back
+     * in O(path length) from the returned tree.
+     */
+    public ShortestPathTree shortestPathTree(WeightedGraph graph, int source, int[] topologicalOrder) {
+        return shortestPathTree(graph, source, topologicalOrder, null);
+    }
+
+    // Node-weighted when durations is non-null, as in shortestPaths
+    public ShortestPathTree shortestPathTree(WeightedGraph graph, int source, int[] topologicalOrder,
+                                             int[] durations) {
         int n = graph.getVertices();
         int[] dist = new int[n];
+        int[] predecessor = new int[n];
+        relax(graph, source, topologicalOrder, durations, dist, predecessor);
+        return new ShortestPathTree(source, dist, predecessor);
+    }
+
+    public ShortestPathTree shortestPathTree(WeightedGraph graph, int source, List<Integer> topologicalOrder) {
+        return shortestPathTree(graph, source, IntArrays.toArray(topologicalOrder), null);
+    }
+
+    public ShortestPathTree shortestPathTree(WeightedGraph graph, int source, List<Integer> topologicalOrder,
+                                             int[] durations) {
+        return shortestPathTree(graph, source, IntArrays.toArray(topologicalOrder), durations);
+    }
+
+    public DistanceMatrix shortestPathsFromSources(WeightedGraph graph, int[] sources,
+                                                   int[] topologicalOrder) {
+        return shortestPathsFromSources(graph, sources, topologicalOrder, null);
+    }
+
+    public DistanceMatrix shortestPathsFromSources(WeightedGraph graph, int[] sources,
+                                                   List<Integer> topologicalOrder) {
+        return shortestPathsFromSources(graph, sources, IntArrays.toArray(topologicalOrder), null);
+    }
+
+    public DistanceMatrix shortestPathsFromSources(WeightedGraph graph, int[] sources,
+                                                   List<Integer> topologicalOrder, int[] durations) {
+        return shortestPathsFromSources(graph, sources, IntArrays.toArray(topologicalOrder), durations);
+    }
+
+    /**
+     * Distances from every source in one call. Topological positions are
+     * computed once; sources are grouped into tiles of TILE_SOURCES that are
+     * relaxed together in a single sweep (distances stored vertex-major
+     * within the tile, so the inner loop is contiguous), and tiles run in
+     * parallel. Node-weighted when durations is non-null.
+     */
+    public DistanceMatrix shortestPathsFromSources(WeightedGraph graph, int[] sources,
+                                                   int[] topologicalOrder, int[] durations) {
+        // Bounds every index below: tiles, rows and DistanceMatrix lookups are smaller products
+        int n = graph.getVertices();
+        long cells = (long) sources.length * n;
+        if (cells > MAX_ARRAY_LENGTH) {
+            throw new IllegalArgumentException("Distance matrix of " + sources.length + " sources x " + n
+                    + " vertices has " + cells + " entries, more than the " + MAX_ARRAY_LENGTH
+                    + " an array can hold; split the sources into batches");
+        }
+
+        metrics.reset(); // Reset operation counts and elapsed time
+        metrics.startTimer();
+
+        int[] order = topologicalOrder;
+        int size = order.length;
+        int[] position = workspace.ints(n, -1);
+
+        try {
+            for (int i = 0; i < size; i++) {
+                position[order[i]] = i;
+            }
+            for (int source : sources) {
+                if (source < 0 || source >= n || position[source] == -1) {
+                    throw new IllegalArgumentException("Source " + source + " not found in topological order");
+                }
+            }
+
+            int[] distances = new int[(int) cells];
+            LongAdder processed = new LongAdder();
+            LongAdder relaxations = new LongAdder();
+            LongAdder updates = new LongAdder();
+            int tiles = (sources.length + TILE_SOURCES - 1) / TILE_SOURCES;
+            IntStream.range(0, tiles).parallel().forEach(tile -> relaxTile(graph, sources,
+                    tile * TILE_SOURCES, Math.min(sources.length, (tile + 1) * TILE_SOURCES),
+                    order, size, position, durations, distances, processed, relaxations, updates));
+
+            metrics.add(Operation.TOPO_PROCESSING, processed.sum());
+            metrics.add(Operation.RELAXATION, relaxations.sum());
+            metrics.add(Operation.DISTANCE_UPDATE, updates.sum());
+            metrics.stopTimer();
+            return new DistanceMatrix(sources.clone(), n, distances);
+        } finally {
+            workspace.release(position);
+        }
+    }
+
+    private static void relaxTile(WeightedGraph graph, int[] sources, int from, int to,
+                                  int[] order, int size, int[] position, int[] durations, int[] distances,
+                                  LongAdder processedTotal, LongAdder relaxationTotal, LongAdder updateTotal) {
+        int n = graph.getVertices();
+        int width = to - from;
+        int[] dist = new int[n * width];
         Arrays.fill(dist, Integer.MAX_VALUE);
-        dist[source] = 0;
+
+        int start = size;
+        for (int b = 0; b < width; b++) {
+            int source = sources[from + b];
+            dist[source * width + b] = durations == null ? 0 : durations[source];
+            start = Math.min(start, position[source]);
+        }
+
+        long processed = 0;
+        long relaxations = 0;
+        long updates = 0;
+        for (int k = start; k < size; k++) {
+            int u = order[k];
+            int baseU = u * width;
+            processed++;
+
+            for (int j = 0, degree = graph.getOutDegree(u); j < degree; j++) {
+                int v = graph.getNeighbor(u, j);
+                int weight = durations == null ? graph.getNeighborWeight(u, j) : durations[v];
+                int baseV = v * width;
+                for (int b = 0; b < width; b++) {
+                    int du = dist[baseU + b];
+                    if (du == Integer.MAX_VALUE) {
+                        continue;
+                    }
+                    relaxations++;
+                    int newDist = du + weight;
+                    if (newDist < dist[baseV + b]) {
+                        dist[baseV + b] = newDist;
+                        updates++;
+                    }
+                }
+            }
+        }
+
+        // Transpose the tile into its rows of the source-major result
+        for (int b = 0; b < width; b++) {
+            int row = (from + b) * n;
+            for (int v = 0; v < n; v++) {
+                distances[row + v] = dist[v * width + b];
+            }
+        }
+
+        processedTotal.add(processed);
+        relaxationTotal.add(relaxations);
+        updateTotal.add(updates);
+    }
+
+    // Entering v costs durations[v] when durations is given, the edge weight otherwise
+    private void relax(WeightedGraph graph, int source, int[] topologicalOrder,
+                       int[] durations, int[] dist, int[] predecessor) {
+        metrics.reset(); // Reset operation counts and elapsed time
+        metrics.startTimer();
+
+        int n = graph.getVertices();
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[source] = durations == null ? 0 : durations[source];
+        if (predecessor != null) {
+            Arrays.fill(predecessor, -1);
+        }
 
         // Find source position in topological order
-        int sourceIndex = topologicalOrder.indexOf(source);
-        if (sourceIndex == -1) {
+        int sourceIndex = 0;
+        while (sourceIndex < topologicalOrder.length && topologicalOrder[sourceIndex] != source) {
+            sourceIndex++;
+        }
+        if (sourceIndex == topologicalOrder.length) {
             throw new IllegalArgumentException("Source not found in topological order");
         }
 
+        long processed = 0;
+        long relaxations = 0;
+        long updates = 0;
+
         // Process vertices in topological order
         for (int i = sourceIndex; i < n; i++) {
-            int u = topologicalOrder.get(i);
-            metrics.incrementOperation("topo_processing");
+            int u = topologicalOrder[i];
+            processed++;
 
             if (dist[u] != Integer.MAX_VALUE) {
-                for (Graph.Edge edge : graph.getNeighbors(u)) {
-                    int v = edge.target;
-                    int newDist = dist[u] + edge.weight;
-                    metrics.incrementOperation("relaxation");
+                for (int j = 0, degree = graph.getOutDegree(u); j < degree; j++) {
+                    int v = graph.getNeighbor(u, j);
+                    int newDist = dist[u] + (durations == null ? graph.getNeighborWeight(u, j) : durations[v]);
+                    relaxations++;
 
                     if (newDist < dist[v]) {
                         dist[v] = newDist;
-                        metrics.incrementOperation("distance_update");
+                        if (predecessor != null) {
+                            predecessor[v] = u;
+                        }
+                        updates++;
                     }
                 }
             }
         }
 
-        return dist;
+        metrics.add(Operation.TOPO_PROCESSING, processed);
+        metrics.add(Operation.RELAXATION, relaxations);
+        metrics.add(Operation.DISTANCE_UPDATE, updates);
+        metrics.stopTimer();
+    }
+
+    /**
+     * Rebuilds a path from plain distances. Predecessors are recovered with one
+     * O(V + E) sweep over tight edges in topological order, which also
+     * terminates correctly with zero-weight and negative edges. Prefer
+     * shortestPathTree when paths are needed.
+     */
+    public List<Integer> reconstructPath(int[] dist, int target, WeightedGraph graph, List<Integer> topologicalOrder) {
+        return reconstructPath(dist, target, graph, IntArrays.toArray(topologicalOrder), null);
+    }
+
+    public List<Integer> reconstructPath(int[] dist, int target, WeightedGraph graph, int[] topologicalOrder) {
+        return reconstructPath(dist, target, graph, topologicalOrder, null);
+    }
+
+    /**
+     * For distances from the node-weighted shortestPaths: pass the same
+     * durations, since an edge u -> v is tight when dist[u] + durations[v]
+     * equals dist[v], whatever its weight
+     */
+    public List<Integer> reconstructPath(int[] dist, int target, WeightedGraph graph, List<Integer> topologicalOrder,
+                                         int[] durations) {
+        return reconstructPath(dist, target, graph, IntArrays.toArray(topologicalOrder), durations);
     }
 
-    public List<Integer> reconstructPath(int[] dist, int target, Graph graph, List<Integer> topologicalOrder) {
+    public List<Integer> reconstructPath(int[] dist, int target, WeightedGraph graph, int[] topologicalOrder,
+                                         int[] durations) {
         if (dist[target] == Integer.MAX_VALUE) {
             return Collections.emptyList();
         }
 
-        List<Integer> path = new ArrayList<>();
-        path.add(target);
+        int[] predecessor = workspace.ints(graph.getVertices(), -1);
 
-        int current = target;
-        int currentDist = dist[target];
-
-        // Reconstruct path backwards
-        while (currentDist > 0) {
+        try {
+            // The first tight edge into v comes from a vertex earlier in topological order,
+            // so following predecessors always ends at the source
             for (int u : topologicalOrder) {
-                if (dist[u] < Integer.MAX_VALUE) {
-                    for (Graph.Edge edge : graph.getNeighbors(u)) {
-                        if (edge.target == current && dist[u] + edge.weight == currentDist) {
-                            path.add(0, u);
-                            current = u;
-                            currentDist = dist[u];
-                            break;
-                        }
+                if (dist[u] == Integer.MAX_VALUE) {
+                    continue;
+                }
+                for (int j = 0, degree = graph.getOutDegree(u); j < degree; j++) {
+                    int v = graph.getNeighbor(u, j);
+                    if (predecessor[v] == -1 && dist[v] != Integer.MAX_VALUE
+                            && dist[u] + (durations == null ? graph.getNeighborWeight(u, j) : durations[v]) == dist[v]) {
+                        predecessor[v] = u;
                     }
                 }
-                if (currentDist == 0) break;
             }
-        }
 
-        return path;
+            return ShortestPathTree.walk(predecessor, target);
+        } finally {
+            workspace.release(predecessor);
+        }
     }
 
     public Metrics getMetrics() {
         return metrics;
     }
-}
\ No newline at end of file
+
+    /**
+     * Shortest-path tree rooted at the source: distances plus the
+     * predecessor (tree parent) of every reached vertex, -1 otherwise.
+     */
+    public static class ShortestPathTree {
+        public final int source;
+        public final int[] distances;
+        public final int[] predecessors;
+
+        public ShortestPathTree(int source, int[] distances, int[] predecessors) {
+            this.source = source;
+            this.distances = distances;
+            this.predecessors = predecessors;
+        }
+
+        public boolean isReachable(int target) {
+            return distances[target] != Integer.MAX_VALUE;
+        }
+
+        // Path from the source to target in O(path length), empty if unreachable
+        public List<Integer> pathTo(int target) {
+            if (!isReachable(target)) {
+                return Collections.emptyList();
+            }
+            return walk(predecessors, target);
+        }
+
+        /**
+         * Paths to every vertex, indexed by vertex (empty when unreachable).
+         * Each path extends its parent's, so total work is the output size.
+         */
+        public List<List<Integer>> pathsToAllTargets() {
+            int n = distances.length;
+            List<List<Integer>> paths = new ArrayList<>(n);
+            for (int v = 0; v < n; v++) {
+                paths.add(null);
+            }
+            for (int v = 0; v < n; v++) {
+                buildPath(v, paths);
+            }
+            return paths;
+        }
+
+        private List<Integer> buildPath(int target, List<List<Integer>> paths) {
+            if (paths.get(target) != null) {
+                return paths.get(target);
+            }
+
+            // Climb to the nearest ancestor whose path is known, then fill back down
+            int[] pending = new int[8];
+            int count = 0;
+            int current = target;
+            while (current != -1 && paths.get(current) == null) {
+                if (!isReachable(current)) {
+                    paths.set(current, Collections.emptyList());
+                    break;
+                }
+                if (count == pending.length) {
+                    pending = Arrays.copyOf(pending, count * 2);
+                }
+                pending[count++] = current;
+                current = predecessors[current];
+            }
+
+            List<Integer> prefix = current == -1 ? Collections.emptyList() : paths.get(current);
+            for (int i = count - 1; i >= 0; i--) {
+                List<Integer> path = new ArrayList<>(prefix.size() + 1);
+                path.addAll(prefix);
+                path.add(pending[i]);
+                paths.set(pending[i], path);
+                prefix = path;
+            }
+            return paths.get(target);
+        }
+
+        static List<Integer> walk(int[] predecessor, int target) {
+            int length = 0;
+            for (int v = target; v != -1; v = predecessor[v]) {
+                length++;
+            }
+
+            Integer[] path = new Integer[length];
+            int index = length;
+            for (int v = target; v != -1; v = predecessor[v]) {
+                path[--index] = v;
+            }
+            return Arrays.asList(path);
+        }
+    }
+
+    /**
+     * Distances from several sources in one flat row-major array: the
+     * distance from sources[i] to v is distances[i * vertices + v],
+     * Integer.MAX_VALUE when unreachable.
+     */
+    public static class DistanceMatrix {
+        public final int[] sources;
+        public final int vertices;
+        public final int[] distances;
+
+        public DistanceMatrix(int[] sources, int vertices, int[] distances) {
+            this.sources = sources;
+            this.vertices = vertices;
+            this.distances = distances;
+        }
+
+        public int distance(int sourceIndex, int target) {
+            return distances[sourceIndex * vertices + target];
+        }
+
+        public boolean isReachable(int sourceIndex, int target) {
+            return distance(sourceIndex, target) != Integer.MAX_VALUE;
+        }
+
+        // Copy of the row for sources[sourceIndex], laid out like shortestPaths
+        public int[] row(int sourceIndex) {
+            return Arrays.copyOfRange(distances, sourceIndex * vertices, (sourceIndex + 1) * vertices);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package graph.dagsp;
+
+import graph.model.WeightedGraph;
+import graph.scc.SCCResult;
+import graph.util.IntArrays;
+import java.util.*;
+
+/**
+ * Answers "can u reach v?" on original vertex ids through the condensation DAG.
+ * Vertices in the same SCC always reach each other; otherwise the query goes
+ * to an index over the components:
+ *
+ *   BITSET    full transitive closure, one bit row per component, built in
+ *             reverse topological order. O(1) queries, k^2 / 8 bytes.
+ *   INTERVAL  GRAIL-style labeling: a few randomized DFS traversals each give
+ *             every component an interval that contains the intervals of all
+ *             its descendants. A query whose intervals are not nested is
+ *             answered "no" at once. Otherwise a DFS runs, pruned by the
+ *             intervals and by topological position. O(k) memory.
+ *
+ * Bitset rows are read-only and safe to share; interval queries reuse a visit
+ * stamp array, so an INTERVAL index must not be queried concurrently.
+ */
+public final class ReachabilityIndex {
+    public enum Kind { BITSET, INTERVAL }
+
+    // Largest condensation that gets a full closure (32 MB of bits)
+    public static final int BITSET_MAX_COMPONENTS = 1 << 14;
+    private static final int LABELINGS = 3;
+
+    private final Kind kind;
+    private final int[] componentOf;
+    private final int components;
+    private final long buildTime;
+
+    // BITSET
+    private final long[] closure;
+    private final int words;
+
+    // INTERVAL
+    private final WeightedGraph condensation;
+    private final int[] position;
+    private final int[] low;
+    private final int[] rank;
+    private final int[] visited;
+    private int[] stack;
+    private int stamp;
+
+    private ReachabilityIndex(Kind kind, int[] componentOf, int components, long[] closure, int words,
+                              WeightedGraph condensation, int[] position, int[] low, int[] rank,
+                              long buildTime) {
+        this.kind = kind;
+        this.componentOf = componentOf;
+        this.components = components;
+        this.closure = closure;
+        this.words = words;
+        this.condensation = condensation;
+        this.position = position;
+        this.low = low;
+        this.rank = rank;
+        this.visited = kind == Kind.INTERVAL ? new int[components] : null;
+        this.stack = kind == Kind.INTERVAL ? new int[16] : null;
+        this.buildTime = buildTime;
+    }
+
+    // Picks BITSET up to BITSET_MAX_COMPONENTS components, INTERVAL above
+    public static ReachabilityIndex build(SCCResult components, WeightedGraph condensation,
+                                          int[] topologicalOrder) {
+        Kind kind = condensation.getVertices() <= BITSET_MAX_COMPONENTS ? Kind.BITSET : Kind.INTERVAL;
+        return build(components, condensation, topologicalOrder, kind);
+    }
+
+    public static ReachabilityIndex build(List<List<Integer>> sccs, WeightedGraph condensation,
+                                          List<Integer> topologicalOrder) {
+        Kind kind = condensation.getVertices() <= BITSET_MAX_COMPONENTS ? Kind.BITSET : Kind.INTERVAL;
+        return build(sccs, condensation, topologicalOrder, kind);
+    }
+
+    public static ReachabilityIndex build(List<List<Integer>> sccs, WeightedGraph condensation,
+                                          List<Integer> topologicalOrder, Kind kind) {
+        int vertices = 0;
+        for (List<Integer> scc : sccs) {
+            vertices += scc.size();
+        }
+        return build(SCCResult.fromLists(sccs, vertices), condensation,
+                IntArrays.toArray(topologicalOrder), kind);
+    }
+
+    /**
+     * components, condensation and topologicalOrder are the outputs of
+     * findComponents, buildCondensationGraph and order for the same graph.
+     */
+    public static ReachabilityIndex build(SCCResult components, WeightedGraph condensation,
+                                          int[] topologicalOrder, Kind kind) {
+        long start = System.nanoTime();
+
+        int[] componentOf = components.componentOf;
+        int k = condensation.getVertices();
+        int[] order = topologicalOrder;
+        int[] position = new int[k];
+        for (int i = 0; i < k; i++) {
+            position[order[i]] = i;
+        }
+
+        if (kind == Kind.BITSET) {
+            int words = (k + 63) >>> 6;
+            long[] closure = new long[k * words];
+            for (int i = k - 1; i >= 0; i--) {
+                int u = order[i];
+                int row = u * words;
+                closure[row + (u >>> 6)] |= 1L << u;
+                for (int j = 0, degree = condensation.getOutDegree(u); j < degree; j++) {
+                    int other = condensation.getNeighbor(u, j) * words;
+                    for (int w = 0; w < words; w++) {
+                        closure[row + w] |= closure[other + w];
+                    }
+                }
+            }
+            return new ReachabilityIndex(kind, componentOf, k, closure, words,
+                    null, null, null, null, System.nanoTime() - start);
+        }
+
+        int[] low = new int[LABELINGS * k];
+        int[] rank = new int[LABELINGS * k];
+        SplittableRandom random = new SplittableRandom(k);
+        for (int d = 0; d < LABELINGS; d++) {
+            label(condensation, random, low, rank, d * k);
+        }
+        return new ReachabilityIndex(kind, componentOf, k, null, 0,
+                condensation, position, low, rank, System.nanoTime() - start);
+    }
+
+    /**
+     * One randomized post-order DFS: rank is the post-order number and low
+     * the smallest rank among the component and everything below it, so
+     * u reaches v only if [low[v], rank[v]] lies inside [low[u], rank[u]].
+     */
+    private static void label(WeightedGraph dag, SplittableRandom random, int[] low, int[] rank, int base) {
+        int k = dag.getVertices();
+        int[] roots = new int[k];
+        for (int i = 0; i < k; i++) {
+            roots[i] = i;
+        }
+        for (int i = k - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = roots[i];
+            roots[i] = roots[j];
+            roots[j] = swap;
+        }
+
+        // Children are visited from a random offset, wrapping around
+        int[] first = new int[k];
+        int[] next = new int[k];
+        boolean[] seen = new boolean[k];
+        int[] stack = new int[k];
+        int counter = 0;
+
+        for (int root : roots) {
+            if (seen[root]) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            seen[root] = true;
+            first[root] = dag.getOutDegree(root) == 0 ? 0 : random.nextInt(dag.getOutDegree(root));
+            next[root] = 0;
+            low[base + root] = Integer.MAX_VALUE;
+
+            while (top > 0) {
+                int u = stack[top - 1];
+                int degree = dag.getOutDegree(u);
+                if (next[u] < degree) {
+                    int v = dag.getNeighbor(u, (first[u] + next[u]++) % degree);
+                    if (!seen[v]) {
+                        seen[v] = true;
+                        first[v] = dag.getOutDegree(v) == 0 ? 0 : random.nextInt(dag.getOutDegree(v));
+                        next[v] = 0;
+                        low[base + v] = Integer.MAX_VALUE;
+                        stack[top++] = v;
+                    } else if (low[base + v] < low[base + u]) {
+                        low[base + u] = low[base + v];
+                    }
+                    continue;
+                }
+
+                top--;
+                rank[base + u] = counter++;
+                low[base + u] = Math.min(low[base + u], rank[base + u]);
+                if (top > 0) {
+                    int parent = stack[top - 1];
+                    low[base + parent] = Math.min(low[base + parent], low[base + u]);
+                }
+            }
+        }
+    }
+
+    public boolean reachable(int u, int v) {
+        return componentReachable(componentOf[u], componentOf[v]);
+    }
+
+    public boolean componentReachable(int cu, int cv) {
+        if (cu == cv) {
+            return true;
+        }
+        if (kind == Kind.BITSET) {
+            return (closure[cu * words + (cv >>> 6)] & (1L << cv)) != 0;
+        }
+        if (position[cu] > position[cv] || !contains(cu, cv)) {
+            return false;
+        }
+
+        // Labels cannot rule it out: DFS, entering only components that may still reach cv
+        stamp++;
+        int top = 0;
+        stack[top++] = cu;
+        visited[cu] = stamp;
+        while (top > 0) {
+            int x = stack[--top];
+            for (int j = 0, degree = condensation.getOutDegree(x); j < degree; j++) {
+                int y = condensation.getNeighbor(x, j);
+                if (y == cv) {
+                    return true;
+                }
+                if (visited[y] != stamp && position[y] < position[cv] && contains(y, cv)) {
+                    visited[y] = stamp;
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = y;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean contains(int cu, int cv) {
+        for (int base = 0; base < low.length; base += components) {
+            if (low[base + cv] < low[base + cu] || rank[base + cv] > rank[base + cu]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getComponentCount() {
+        return components;
+    }
+
+    // Wall-clock build time in nanoseconds
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    // Approximate heap footprint of the index arrays in bytes
+    public long getMemoryBytes() {
+        long bytes = 4L * componentOf.length;
+        if (kind == Kind.BITSET) {
+            return bytes + 8L * closure.length;
+        }
+        return bytes + 4L * (position.length + low.length + rank.length + visited.length + stack.length);
+    }
+}
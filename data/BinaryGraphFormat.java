@@ -0,0 +1,374 @@
+package graph.data;
+
+import graph.model.CSRGraph;
+import graph.model.GraphData;
+import graph.model.GraphMetadata;
+import graph.model.MappedCSRGraph;
+import graph.model.WeightedGraph;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Versioned binary graph file, loaded by memory-mapping the CSR arrays.
+ *
+ * Layout (all ints little-endian):
+ *   header:  magic "SCGB", version, flags (bit 0 directed, bit 1 has source,
+ *            bit 2 has durations), n, listed edge count, arc count, source,
+ *            weight model byte length, weight model UTF-8 bytes padded to 4
+ *   body:    offsets[n + 1], targets[arcs], weights[arcs], durations[n] if flagged
+ *
+ * Version 2 added the durations section; version 1 files are still read.
+ */
+public final class BinaryGraphFormat {
+    public static final int MAGIC = 0x42474353; // "SCGB" read as little-endian int
+    public static final int VERSION = 2;
+    public static final String EXTENSION = ".bin";
+
+    private static final int FLAG_DIRECTED = 1;
+    private static final int FLAG_HAS_SOURCE = 2;
+    private static final int FLAG_HAS_DURATIONS = 4;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    private BinaryGraphFormat() {}
+
+    public static void write(GraphData graphData, File file) throws IOException {
+        CSRGraph.Builder graph = new CSRGraph.Builder(
+                graphData.getN(), graphData.isDirected(), graphData.getEdges().size());
+        for (GraphData.Edge edge : graphData.getEdges()) {
+            graph.addEdge(edge.getU(), edge.getV(), edge.getW());
+        }
+        write(GraphMetadata.of(graphData), graph.build(), graphData.getDurations(), file);
+    }
+
+    public static void write(GraphMetadata metadata, WeightedGraph graph, File file) throws IOException {
+        write(metadata, graph, null, file);
+    }
+
+    public static void write(LoadedGraph loaded, File file) throws IOException {
+        write(loaded.metadata, loaded.graph, loaded.durations, file);
+    }
+
+    public static void write(GraphMetadata metadata, WeightedGraph graph, int[] durations, File file)
+            throws IOException {
+        int n = graph.getVertices();
+        if (durations != null && durations.length != n) {
+            throw new IllegalArgumentException(durations.length + " durations for " + n + " vertices");
+        }
+        byte[] weightModel = metadata.getWeightModel() == null
+                ? new byte[0] : metadata.getWeightModel().getBytes(StandardCharsets.UTF_8);
+
+        int flags = (graph.isDirected() ? FLAG_DIRECTED : 0)
+                | (metadata.getSource() != null ? FLAG_HAS_SOURCE : 0)
+                | (durations != null ? FLAG_HAS_DURATIONS : 0);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            raf.setLength(0);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+            putHeader(channel, buffer, flags, n, metadata.getEdgeCount(), graph.getEdgeCount(),
+                    metadata.getSource(), weightModel);
+
+            // offsets
+            int offset = 0;
+            putInt(channel, buffer, 0);
+            for (int u = 0; u < n; u++) {
+                offset += graph.getOutDegree(u);
+                putInt(channel, buffer, offset);
+            }
+            // targets
+            for (int u = 0; u < n; u++) {
+                for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                    putInt(channel, buffer, graph.getNeighbor(u, i));
+                }
+            }
+            // weights
+            for (int u = 0; u < n; u++) {
+                for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                    putInt(channel, buffer, graph.getNeighborWeight(u, i));
+                }
+            }
+            // durations
+            if (durations != null) {
+                for (int duration : durations) {
+                    putInt(channel, buffer, duration);
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    private static void putHeader(FileChannel channel, ByteBuffer buffer, int flags, int n, int listedEdges,
+                                  int arcs, Integer source, byte[] weightModel) throws IOException {
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(flags)
+                .putInt(n)
+                .putInt(listedEdges)
+                .putInt(arcs)
+                .putInt(source != null ? source : -1)
+                .putInt(weightModel.length);
+        putPadded(channel, buffer, weightModel);
+    }
+
+    /**
+     * Opens a writer that takes a directed graph's arcs vertex by vertex, in
+     * increasing vertex order, without holding them in memory: targets and
+     * weights are spooled to temporary files next to the output and copied
+     * behind the header and offsets on close.
+     */
+    public static Writer openWriter(File file, int n, Integer source, String weightModel) throws IOException {
+        return new Writer(file, n, source, weightModel);
+    }
+
+    public static final class Writer implements Closeable {
+        private final File file;
+        private final int[] offsets;
+        private final Integer source;
+        private final String weightModel;
+        private final File targetsFile;
+        private final File weightsFile;
+        private final FileChannel targets;
+        private final FileChannel weights;
+        private final ByteBuffer targetBuffer;
+        private final ByteBuffer weightBuffer;
+        private int next;
+        private long arcs;
+        private boolean closed;
+
+        private Writer(File file, int n, Integer source, String weightModel) throws IOException {
+            this.file = file;
+            this.offsets = new int[n + 1];
+            this.source = source;
+            this.weightModel = weightModel;
+            File dir = file.getAbsoluteFile().getParentFile();
+            this.targetsFile = File.createTempFile(file.getName(), ".targets", dir);
+            this.weightsFile = File.createTempFile(file.getName(), ".weights", dir);
+            this.targets = FileChannel.open(targetsFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.READ);
+            this.weights = FileChannel.open(weightsFile.toPath(), StandardOpenOption.WRITE, StandardOpenOption.READ);
+            this.targetBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            this.weightBuffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Appends the out-arcs of u; vertices skipped since the previous call get none
+         */
+        public void addArcs(int u, int[] vs, int[] ws, int from, int count) throws IOException {
+            if (u < next - 1 || u >= offsets.length - 1) {
+                throw new IllegalArgumentException("Vertex " + u + " out of order or range");
+            }
+            if (arcs + count > Integer.MAX_VALUE) {
+                throw new IOException("More than " + Integer.MAX_VALUE + " arcs");
+            }
+            for (; next <= u; next++) {
+                offsets[next] = (int) arcs;
+            }
+            for (int i = from; i < from + count; i++) {
+                if (vs[i] < 0 || vs[i] >= offsets.length - 1) {
+                    throw new IllegalArgumentException("Arc " + u + " -> " + vs[i] + " out of range");
+                }
+                putInt(targets, targetBuffer, vs[i]);
+                putInt(weights, weightBuffer, ws[i]);
+            }
+            arcs += count;
+        }
+
+        public long getArcCount() {
+            return arcs;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                int n = offsets.length - 1;
+                for (; next <= n; next++) {
+                    offsets[next] = (int) arcs;
+                }
+                flush(targets, targetBuffer);
+                flush(weights, weightBuffer);
+
+                byte[] model = weightModel == null ? new byte[0] : weightModel.getBytes(StandardCharsets.UTF_8);
+                int flags = FLAG_DIRECTED | (source != null ? FLAG_HAS_SOURCE : 0);
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                     FileChannel channel = raf.getChannel()) {
+                    raf.setLength(0);
+                    ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                    putHeader(channel, buffer, flags, n, (int) arcs, (int) arcs, source, model);
+                    for (int offset : offsets) {
+                        putInt(channel, buffer, offset);
+                    }
+                    flush(channel, buffer);
+                    transfer(targets, channel);
+                    transfer(weights, channel);
+                }
+            } finally {
+                targets.close();
+                weights.close();
+                Files.deleteIfExists(targetsFile.toPath());
+                Files.deleteIfExists(weightsFile.toPath());
+            }
+        }
+
+        private static void transfer(FileChannel from, FileChannel to) throws IOException {
+            long size = from.size();
+            for (long position = 0; position < size; ) {
+                position += from.transferTo(position, size - position, to);
+            }
+        }
+    }
+
+    /**
+     * Maps the file read-only. The returned graph reads straight from the
+     * page cache; nothing is copied onto the heap. Offsets and targets are
+     * still scanned once, so a corrupt file is rejected with an IOException.
+     */
+    public static LoadedGraph load(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), 32)).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.remaining() < 32 || header.getInt() != MAGIC) {
+                throw new IOException("Not a binary graph file: " + file);
+            }
+            int version = header.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported binary graph version " + version + " in " + file);
+            }
+            int flags = header.getInt();
+            int n = header.getInt();
+            int listedEdges = header.getInt();
+            int arcs = header.getInt();
+            int source = header.getInt();
+            int weightModelLength = header.getInt();
+            if (n < 0 || arcs < 0 || weightModelLength < 0) {
+                throw new IOException("Corrupt binary graph file: " + file + " (negative size in header: n="
+                        + n + ", arcs=" + arcs + ", weight model length=" + weightModelLength + ")");
+            }
+
+            long position = 32;
+            String weightModel = null;
+            if (weightModelLength > 0) {
+                ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, weightModelLength);
+                byte[] text = new byte[weightModelLength];
+                bytes.get(text);
+                weightModel = new String(text, StandardCharsets.UTF_8);
+            }
+            position += padded(weightModelLength);
+
+            boolean hasDurations = (flags & FLAG_HAS_DURATIONS) != 0;
+            long expectedSize = position + 4L * ((n + 1L) + 2L * arcs + (hasDurations ? n : 0));
+            if (channel.size() != expectedSize) {
+                throw new IOException("Truncated or corrupt binary graph file: " + file
+                        + " (expected " + expectedSize + " bytes, found " + channel.size() + ")");
+            }
+
+            IntBuffer offsets = mapInts(channel, position, n + 1L);
+            position += 4L * (n + 1L);
+            IntBuffer targets = mapInts(channel, position, arcs);
+            position += 4L * arcs;
+            IntBuffer weights = mapInts(channel, position, arcs);
+            position += 4L * arcs;
+            checkStructure(file, n, arcs, offsets, targets);
+
+            // Durations are small next to the edges, so they are copied to the heap
+            int[] durations = null;
+            if (hasDurations) {
+                durations = new int[n];
+                mapInts(channel, position, n).get(durations);
+            }
+
+            boolean directed = (flags & FLAG_DIRECTED) != 0;
+            GraphMetadata metadata = new GraphMetadata(n, listedEdges, directed,
+                    (flags & FLAG_HAS_SOURCE) != 0 ? source : null, weightModel);
+            return new LoadedGraph(metadata, new MappedCSRGraph(n, directed, offsets, targets, weights), durations);
+        }
+    }
+
+    /**
+     * One pass over the mapped offsets and targets, so a corrupt file fails
+     * here rather than with an index error deep inside an algorithm.
+     */
+    private static void checkStructure(File file, int n, int arcs, IntBuffer offsets, IntBuffer targets)
+            throws IOException {
+        if (offsets.get(0) != 0 || offsets.get(n) != arcs) {
+            throw new IOException("Corrupt binary graph file: " + file + " (offsets run from "
+                    + offsets.get(0) + " to " + offsets.get(n) + ", expected 0 to " + arcs + ")");
+        }
+        for (int u = 0; u < n; u++) {
+            if (offsets.get(u) > offsets.get(u + 1)) {
+                throw new IOException("Corrupt binary graph file: " + file + " (offsets of vertex "
+                        + u + " decrease from " + offsets.get(u) + " to " + offsets.get(u + 1) + ")");
+            }
+        }
+        for (int i = 0; i < arcs; i++) {
+            int v = targets.get(i);
+            if (v < 0 || v >= n) {
+                throw new IOException("Corrupt binary graph file: " + file + " (arc " + i
+                        + " targets vertex " + v + ", out of range [0, " + n + "))");
+            }
+        }
+    }
+
+    // True when the file starts with the binary magic number
+    public static boolean isBinaryGraph(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            return raf.length() >= 4 && Integer.reverseBytes(raf.readInt()) == MAGIC;
+        }
+    }
+
+    private static IntBuffer mapInts(FileChannel channel, long position, long count) throws IOException {
+        // A single mapping is limited to 2 GB, i.e. ~536M ints per section
+        if (count * 4L > Integer.MAX_VALUE) {
+            throw new IOException("Section of " + count + " ints is too large to map");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, count * 4L)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asIntBuffer();
+    }
+
+    private static int padded(int length) {
+        return (length + 3) & ~3;
+    }
+
+    private static void putPadded(FileChannel channel, ByteBuffer buffer, byte[] bytes) throws IOException {
+        for (byte b : bytes) {
+            if (!buffer.hasRemaining()) {
+                flush(channel, buffer);
+            }
+            buffer.put(b);
+        }
+        for (int i = bytes.length; i < padded(bytes.length); i++) {
+            if (!buffer.hasRemaining()) {
+                flush(channel, buffer);
+            }
+            buffer.put((byte) 0);
+        }
+    }
+
+    private static void putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < 4) {
+            flush(channel, buffer);
+        }
+        buffer.putInt(value);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -256,6 +256,59 @@ public class DatasetGenerator {
         }
     }
 
+    /**
+     * Streams one synthetic graph of the given family and size to output
+     * (.json or BinaryGraphFormat.EXTENSION); see SyntheticGraphGenerator.
+     */
+    public long generateSynthetic(SyntheticGraphGenerator.Spec spec, File output) throws IOException {
+        long start = System.nanoTime();
+        long edges = new SyntheticGraphGenerator(spec).generate(output);
+        System.out.printf("Generated %s: %s graph, %d nodes, %d edges in %.1f s%n", output,
+                spec.family, spec.vertices, edges, (System.nanoTime() - start) / 1e9);
+        return edges;
+    }
+
+    /**
+     * Parses "family vertices edges output [--seed=N] [--threads=N] [--max-weight=N]
+     * [--layers=N] [--scc-size=N]" into a generator spec.
+     */
+    public static SyntheticGraphGenerator.Spec parseSpec(List<String> args) {
+        List<String> positional = new ArrayList<>();
+        SyntheticGraphGenerator.Spec spec = new SyntheticGraphGenerator.Spec();
+        for (String arg : args) {
+            if (arg.startsWith("--seed=")) {
+                spec.seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                spec.threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--max-weight=")) {
+                spec.maxWeight = Integer.parseInt(arg.substring("--max-weight=".length()));
+            } else if (arg.startsWith("--layers=")) {
+                spec.layers = Integer.parseInt(arg.substring("--layers=".length()));
+            } else if (arg.startsWith("--scc-size=")) {
+                spec.sccSize = Integer.parseInt(arg.substring("--scc-size=".length()));
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            } else {
+                positional.add(arg);
+            }
+        }
+        if (positional.size() != 4) {
+            throw new IllegalArgumentException("Usage: <family> <vertices> <edges> <output.json|"
+                    + BinaryGraphFormat.EXTENSION + "> [--seed=N] [--threads=N] [--max-weight=N]"
+                    + " [--layers=N] [--scc-size=N]");
+        }
+        spec.family = SyntheticGraphGenerator.Family.fromName(positional.get(0));
+        spec.vertices = Integer.parseInt(positional.get(1));
+        spec.edges = Long.parseLong(positional.get(2));
+        return spec;
+    }
+
+    // The fourth positional argument of a synthetic spec
+    public static File syntheticOutput(String[] args) {
+        return new File(Arrays.stream(args).filter(arg -> !arg.startsWith("--"))
+                .skip(3).findFirst().orElseThrow(IllegalArgumentException::new));
+    }
+
     private void generateDatasetReport() throws IOException {
         StringBuilder report = new StringBuilder();
         report.append("# Graph Dataset Report\n\n");
@@ -343,6 +396,11 @@ public class DatasetGenerator {
 
     public static void main(String[] args) {
         try {
+            if (args.length > 0) {
+                // Synthetic graph: family vertices edges output [options]
+                new DatasetGenerator().generateSynthetic(parseSpec(Arrays.asList(args)), syntheticOutput(args));
+                return;
+            }
             new DatasetGenerator().generateAllDatasets();
         } catch (IOException e) {
             System.err.println("Error generating datasets: " + e.getMessage());
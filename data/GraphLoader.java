@@ -0,0 +1,19 @@
+package graph.data;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Loads a dataset from either a JSON file or a binary graph file,
+ * recognising the binary format by its magic number.
+ */
+public class GraphLoader {
+    private final StreamingGraphLoader jsonLoader = new StreamingGraphLoader();
+
+    public LoadedGraph load(File file) throws IOException {
+        if (BinaryGraphFormat.isBinaryGraph(file)) {
+            return BinaryGraphFormat.load(file);
+        }
+        return jsonLoader.load(file);
+    }
+}
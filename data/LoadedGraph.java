@@ -0,0 +1,35 @@
+package graph.data;
+
+import graph.model.GraphMetadata;
+import graph.model.WeightModel;
+import graph.model.WeightedGraph;
+
+import java.util.Arrays;
+
+/**
+ * A dataset loaded for analysis: its header fields plus the graph itself.
+ */
+public class LoadedGraph {
+    public final GraphMetadata metadata;
+    public final WeightedGraph graph;
+    // Per-vertex durations; null for edge-weighted datasets without any
+    public final int[] durations;
+
+    public LoadedGraph(GraphMetadata metadata, WeightedGraph graph) {
+        this(metadata, graph, null);
+    }
+
+    /**
+     * A node-weighted dataset that lists no durations gets the default
+     * duration of 1 for every task, as in Vertex.
+     */
+    public LoadedGraph(GraphMetadata metadata, WeightedGraph graph, int[] durations) {
+        this.metadata = metadata;
+        this.graph = graph;
+        if (durations == null && WeightModel.NODE.getKey().equalsIgnoreCase(metadata.getWeightModel())) {
+            durations = new int[graph.getVertices()];
+            Arrays.fill(durations, 1);
+        }
+        this.durations = durations;
+    }
+}
@@ -0,0 +1,186 @@
+package graph.data;
+
+import graph.model.CSRGraph;
+import graph.model.GraphMetadata;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Loads a dataset JSON file in a single streaming pass.
+ * Edges go straight from the token stream into growable int arrays and
+ * from there into a CSRGraph, so no GraphData.Edge objects are created.
+ * Field order in the file does not matter and unknown fields are skipped.
+ *
+ * The edge buffers are kept between calls, so one loader reused for many
+ * files stops allocating them once they have grown to the largest input.
+ * Instances are not thread-safe.
+ */
+public class StreamingGraphLoader {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private int[] sources = new int[1024];
+    private int[] targets = new int[1024];
+    private int[] weights = new int[1024];
+    private int size;
+
+    public LoadedGraph load(File file) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(file)) {
+            return load(parser);
+        }
+    }
+
+    public LoadedGraph load(InputStream input) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(input)) {
+            return load(parser);
+        }
+    }
+
+    public LoadedGraph load(String json) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(json)) {
+            return load(parser);
+        }
+    }
+
+    private LoadedGraph load(JsonParser parser) throws IOException {
+        size = 0;
+        int n = -1;
+        int listedEdges = 0;
+        boolean directed = false;
+        Integer source = null;
+        String weightModel = null;
+        int[] durations = null;
+
+        expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "n":
+                    n = parser.getIntValue();
+                    break;
+                case "directed":
+                    directed = parser.getBooleanValue();
+                    break;
+                case "source":
+                    source = value == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+                    break;
+                case "weight_model":
+                    weightModel = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    break;
+                case "edges":
+                    listedEdges = readEdges(parser);
+                    break;
+                case "durations":
+                    durations = value == JsonToken.VALUE_NULL ? null : readInts(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        if (n < 0) {
+            throw new IOException("Dataset is missing the vertex count \"n\"");
+        }
+        if (durations != null && durations.length != n) {
+            throw new IOException("Invalid dataset: " + durations.length
+                    + " durations for " + n + " vertices");
+        }
+
+        // Undirected edges become two arcs; appended only now since "directed" may follow "edges"
+        if (!directed) {
+            int listed = size;
+            ensureCapacity(2 * listed);
+            for (int i = 0; i < listed; i++) {
+                append(targets[i], sources[i], weights[i]);
+            }
+        }
+
+        CSRGraph graph;
+        try {
+            graph = CSRGraph.fromEdgeArrays(n, directed, sources, targets, weights, size);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid dataset: " + e.getMessage(), e);
+        }
+
+        return new LoadedGraph(
+                new GraphMetadata(n, listedEdges, directed, source, weightModel), graph, durations);
+    }
+
+    private int readEdges(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        int count = 0;
+
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            int u = -1;
+            int v = -1;
+            int w = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "u":
+                        u = parser.getIntValue();
+                        break;
+                    case "v":
+                        v = parser.getIntValue();
+                        break;
+                    case "w":
+                        w = parser.getIntValue();
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            append(u, v, w);
+            count++;
+        }
+
+        expect(parser, parser.currentToken(), JsonToken.END_ARRAY);
+        return count;
+    }
+
+    private static int[] readInts(JsonParser parser) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        int[] values = new int[64];
+        int count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = parser.getIntValue();
+        }
+        return Arrays.copyOf(values, count);
+    }
+
+    private void append(int u, int v, int w) {
+        if (size == sources.length) {
+            ensureCapacity(size + (size >> 1) + 1);
+        }
+        sources[size] = u;
+        targets[size] = v;
+        weights[size] = w;
+        size++;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > sources.length) {
+            sources = Arrays.copyOf(sources, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " but found " + actual
+                    + " at " + parser.getCurrentLocation());
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package graph.data;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Parameterized directed graph families for scale testing. Every vertex's
+ * out-edges are a function of the seed only: vertices are cut into blocks,
+ * each block draws from its own SplittableRandom split off the seed in block
+ * order, so the output is identical for any thread count. Blocks are
+ * generated in parallel and written in order straight to a JSON dataset or a
+ * binary graph file; at most a few blocks are held in memory at a time.
+ *
+ *   LAYERED      DAG in `layers` layers, edges only into the next layer
+ *   RMAT         R-MAT (a, b, c, d) = (0.57, 0.19, 0.19, 0.05), cyclic with
+ *                power-law degrees; self-loops are dropped
+ *   PLANTED_SCC  blocks of `sccSize` vertices closed into a cycle plus random
+ *                internal edges, like createHierarchicalSCCs, with forward
+ *                edges between blocks; the blocks are exactly the SCCs
+ *   CHAIN        one long path 0 -> 1 -> ... -> n-1 plus short forward skips
+ */
+public final class SyntheticGraphGenerator {
+    public enum Family {
+        LAYERED, RMAT, PLANTED_SCC, CHAIN;
+
+        public static Family fromName(String name) {
+            for (Family family : values()) {
+                if (family.name().equalsIgnoreCase(name.replace('-', '_'))) {
+                    return family;
+                }
+            }
+            throw new IllegalArgumentException("Unknown graph family: " + name
+                    + " (expected one of " + Arrays.toString(values()) + ")");
+        }
+    }
+
+    /**
+     * What to generate. edges is the expected total; each vertex draws its
+     * out-degree around edges / vertices, so the actual count varies slightly.
+     */
+    public static class Spec {
+        public Family family = Family.LAYERED;
+        public int vertices = 1000;
+        public long edges = 4000;
+        public long seed = 42;
+        public int maxWeight = 10;
+        public int threads = Runtime.getRuntime().availableProcessors();
+        // LAYERED: 0 picks sqrt(vertices)
+        public int layers = 0;
+        // PLANTED_SCC: vertices per planted component
+        public int sccSize = 8;
+    }
+
+    // Vertices per block, i.e. per random stream and unit of parallel work
+    static final int BLOCK_VERTICES = 1 << 14;
+    // Forward reach of CHAIN skips and PLANTED_SCC cross edges
+    private static final int WINDOW = 64;
+    private static final double A = 0.57, B = 0.19, C = 0.19, D = 0.05;
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final Spec spec;
+    private final double degree;
+    private final int layers;
+    private final int scale;
+    private final double rowMass;
+
+    public SyntheticGraphGenerator(Spec spec) {
+        if (spec.vertices < 2 || spec.edges < 0 || spec.maxWeight < 1 || spec.threads < 1 || spec.sccSize < 1) {
+            throw new IllegalArgumentException("Invalid generator spec: vertices >= 2, edges >= 0, "
+                    + "maxWeight, threads and sccSize >= 1 required");
+        }
+        this.spec = spec;
+        this.degree = (double) spec.edges / spec.vertices;
+        this.layers = spec.layers > 0 ? Math.min(spec.layers, spec.vertices)
+                : Math.max(2, (int) Math.sqrt(spec.vertices));
+        this.scale = 32 - Integer.numberOfLeadingZeros(spec.vertices - 1);
+        this.rowMass = rowMass(spec.vertices);
+    }
+
+    /**
+     * Writes the graph to output, as a binary graph file when the name ends
+     * in BinaryGraphFormat.EXTENSION and as a JSON dataset otherwise.
+     * Returns the number of edges written.
+     */
+    public long generate(File output) throws IOException {
+        File parent = output.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (Sink sink = output.getName().endsWith(BinaryGraphFormat.EXTENSION)
+                ? new BinarySink(output, spec.vertices) : new JsonSink(output, spec.vertices)) {
+            return generate(sink);
+        }
+    }
+
+    private long generate(Sink sink) throws IOException {
+        int blocks = (int) ((spec.vertices + (long) BLOCK_VERTICES - 1) / BLOCK_VERTICES);
+
+        // Streams are split in block order up front, independent of scheduling
+        SplittableRandom root = new SplittableRandom(spec.seed);
+        SplittableRandom[] streams = new SplittableRandom[blocks];
+        for (int b = 0; b < blocks; b++) {
+            streams[b] = root.split();
+        }
+
+        long edges = 0;
+        if (spec.threads == 1) {
+            for (int b = 0; b < blocks; b++) {
+                edges += sink.write(generateBlock(b, streams[b]));
+                streams[b] = null;
+            }
+            return edges;
+        }
+
+        // Bounded lookahead: blocks finish in parallel and are written in order
+        ExecutorService executor = Executors.newFixedThreadPool(spec.threads);
+        try {
+            ArrayDeque<Future<Block>> pending = new ArrayDeque<>();
+            int submitted = 0;
+            while (submitted < blocks || !pending.isEmpty()) {
+                while (submitted < blocks && pending.size() < 2 * spec.threads) {
+                    int b = submitted++;
+                    SplittableRandom stream = streams[b];
+                    streams[b] = null;
+                    pending.add(executor.submit(() -> generateBlock(b, stream)));
+                }
+                edges += sink.write(pending.poll().get());
+            }
+            return edges;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Graph generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Block generateBlock(int b, SplittableRandom random) {
+        int first = b * BLOCK_VERTICES;
+        int count = Math.min(BLOCK_VERTICES, spec.vertices - first);
+        Block block = new Block(first, count, (int) Math.min(Integer.MAX_VALUE - 8, (long) (count * degree * 1.1) + 16));
+        for (int i = 0; i < count; i++) {
+            int u = first + i;
+            switch (spec.family) {
+                case LAYERED:
+                    layered(u, random, block);
+                    break;
+                case RMAT:
+                    rmat(u, random, block);
+                    break;
+                case PLANTED_SCC:
+                    planted(u, random, block);
+                    break;
+                default:
+                    chain(u, random, block);
+            }
+            block.end[i] = block.size;
+        }
+        return block;
+    }
+
+    // floor(degree) or ceil(degree), averaging to degree
+    private int sampleDegree(SplittableRandom random) {
+        int whole = (int) degree;
+        return whole + (random.nextDouble() < degree - whole ? 1 : 0);
+    }
+
+    private int weight(SplittableRandom random) {
+        return 1 + random.nextInt(spec.maxWeight);
+    }
+
+    private int layerStart(int layer) {
+        return (int) (((long) layer * spec.vertices + layers - 1) / layers);
+    }
+
+    private void layered(int u, SplittableRandom random, Block block) {
+        int layer = (int) ((long) u * layers / spec.vertices);
+        if (layer == layers - 1) {
+            return;
+        }
+        int start = layerStart(layer + 1);
+        int width = layerStart(layer + 2) - start;
+        // Every vertex outside the last layer keeps at least one edge, so paths span all layers
+        for (int k = Math.max(1, sampleDegree(random)); k > 0; k--) {
+            block.add(start + random.nextInt(width), weight(random));
+        }
+    }
+
+    private void rmat(int u, SplittableRandom random, Block block) {
+        // Out-degree follows u's row probability, targets the column split given u's bits
+        double row = 1;
+        for (int bit = scale - 1; bit >= 0; bit--) {
+            row *= ((u >>> bit) & 1) == 0 ? A + B : C + D;
+        }
+        int edges = poisson(spec.edges * row / rowMass, random);
+        for (int k = 0; k < edges; k++) {
+            int v;
+            do {
+                v = 0;
+                for (int bit = scale - 1; bit >= 0; bit--) {
+                    double zero = ((u >>> bit) & 1) == 0 ? A / (A + B) : C / (C + D);
+                    v = (v << 1) | (random.nextDouble() < zero ? 0 : 1);
+                }
+            } while (v >= spec.vertices);
+            if (v != u) {
+                block.add(v, weight(random));
+            }
+        }
+    }
+
+    private void planted(int u, SplittableRandom random, Block block) {
+        int size = spec.sccSize;
+        int start = u / size * size;
+        int end = Math.min(spec.vertices, start + size);
+        int remaining = sampleDegree(random);
+        if (end - start > 1) {
+            block.add(u + 1 < end ? u + 1 : start, weight(random));
+            remaining--;
+        }
+        for (; remaining > 0; remaining--) {
+            int blocksAhead = (spec.vertices - end + size - 1) / size;
+            if (blocksAhead > 0 && (end - start == 1 || random.nextBoolean())) {
+                int target = end + (random.nextInt(Math.min(WINDOW, blocksAhead))) * size;
+                int width = Math.min(size, spec.vertices - target);
+                block.add(target + random.nextInt(width), weight(random));
+            } else if (end - start > 1) {
+                int v = start + random.nextInt(end - start - 1);
+                block.add(v >= u ? v + 1 : v, weight(random));
+            }
+        }
+    }
+
+    private void chain(int u, SplittableRandom random, Block block) {
+        if (u == spec.vertices - 1) {
+            return;
+        }
+        block.add(u + 1, weight(random));
+        for (int k = sampleDegree(random) - 1; k > 0; k--) {
+            int skip = 2 + random.nextInt(WINDOW);
+            if (u + skip < spec.vertices) {
+                block.add(u + skip, weight(random));
+            }
+        }
+    }
+
+    /**
+     * Total row probability of vertices [0, n): walks the bits of n from the
+     * top, adding the mass of every complete subtree left of the boundary.
+     */
+    private double rowMass(int n) {
+        if (n == 1 << scale) {
+            return 1;
+        }
+        double mass = 0;
+        double prefix = 1;
+        for (int bit = scale - 1; bit >= 0; bit--) {
+            if (((n >>> bit) & 1) != 0) {
+                mass += prefix * (A + B);
+                prefix *= C + D;
+            } else {
+                prefix *= A + B;
+            }
+        }
+        return mass;
+    }
+
+    private static int poisson(double mean, SplittableRandom random) {
+        if (mean < 30) {
+            // Knuth: count uniforms until their product drops below e^-mean
+            double limit = Math.exp(-mean);
+            double product = random.nextDouble();
+            int k = 0;
+            while (product > limit) {
+                product *= random.nextDouble();
+                k++;
+            }
+            return k;
+        }
+        // Normal approximation via Box-Muller
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble()))
+                * Math.cos(2 * Math.PI * random.nextDouble());
+        return (int) Math.max(0, Math.round(mean + Math.sqrt(mean) * gaussian));
+    }
+
+    // Out-edges of a run of consecutive vertices; vertex i's are [end[i-1], end[i])
+    private static final class Block {
+        final int first;
+        final int[] end;
+        int[] targets;
+        int[] weights;
+        int size;
+
+        Block(int first, int count, int capacity) {
+            this.first = first;
+            this.end = new int[count];
+            this.targets = new int[capacity];
+            this.weights = new int[capacity];
+        }
+
+        void add(int v, int w) {
+            if (size == targets.length) {
+                targets = Arrays.copyOf(targets, size + (size >> 1) + 1);
+                weights = Arrays.copyOf(weights, targets.length);
+            }
+            targets[size] = v;
+            weights[size] = w;
+            size++;
+        }
+    }
+
+    private interface Sink extends Closeable {
+        // Returns the number of edges written
+        long write(Block block) throws IOException;
+    }
+
+    // {"directed": true, "n": ..., "edges": [...], "source": 0, "weight_model": "edge"}
+    private static final class JsonSink implements Sink {
+        private final JsonGenerator json;
+
+        JsonSink(File file, int n) throws IOException {
+            json = FACTORY.createGenerator(new BufferedOutputStream(new FileOutputStream(file), 1 << 16),
+                    JsonEncoding.UTF8);
+            json.writeStartObject();
+            json.writeBooleanField("directed", true);
+            json.writeNumberField("n", n);
+            json.writeArrayFieldStart("edges");
+        }
+
+        @Override
+        public long write(Block block) throws IOException {
+            int arc = 0;
+            for (int i = 0; i < block.end.length; i++) {
+                for (; arc < block.end[i]; arc++) {
+                    json.writeStartObject();
+                    json.writeNumberField("u", block.first + i);
+                    json.writeNumberField("v", block.targets[arc]);
+                    json.writeNumberField("w", block.weights[arc]);
+                    json.writeEndObject();
+                }
+            }
+            return block.size;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                json.writeEndArray();
+                json.writeNumberField("source", 0);
+                json.writeStringField("weight_model", "edge");
+                json.writeEndObject();
+            } finally {
+                json.close();
+            }
+        }
+    }
+
+    private static final class BinarySink implements Sink {
+        private final BinaryGraphFormat.Writer writer;
+
+        BinarySink(File file, int n) throws IOException {
+            writer = BinaryGraphFormat.openWriter(file, n, 0, "edge");
+        }
+
+        @Override
+        public long write(Block block) throws IOException {
+            int start = 0;
+            for (int i = 0; i < block.end.length; i++) {
+                writer.addArcs(block.first + i, block.targets, block.weights, start, block.end[i] - start);
+                start = block.end[i];
+            }
+            return block.size;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
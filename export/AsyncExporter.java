@@ -0,0 +1,160 @@
+package graph.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Background export stage. Analysis submits finished results as write jobs to a
+ * bounded queue drained by writer threads; submit blocks while the queue is
+ * full, so a slow disk throttles analysis instead of piling up results in
+ * memory. awaitCompletion waits for every submitted job and returns the
+ * failures by label. close runs whatever is still queued before it returns,
+ * so no export is lost when analysis fails part way; submits racing close
+ * either fail or get their job run.
+ */
+public final class AsyncExporter implements Closeable {
+
+    // One export job, usually writing the CSV and JSON files of a dataset
+    @FunctionalInterface
+    public interface Job {
+        void write() throws IOException;
+    }
+
+    private static final Object STOP = new Object();
+
+    private final BlockingQueue<Object> queue;
+    private final Thread[] writers;
+    private final Map<String, Throwable> failures = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Object lock = new Object();
+    private int pending;
+    // Submits past the closed check whose put has not returned yet
+    private int putting;
+    private boolean closed;
+
+    public AsyncExporter(int threads, int capacity) {
+        if (threads < 1 || capacity < 1) {
+            throw new IllegalArgumentException("threads and capacity must be positive: " + threads + ", " + capacity);
+        }
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            writers[i] = new Thread(this::drain, "export-" + i);
+            writers[i].start();
+        }
+    }
+
+    /**
+     * Queues job under label, blocking while the queue is full
+     */
+    public void submit(String label, Job job) throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Exporter is closed");
+            }
+            pending++;
+            putting++;
+        }
+        try {
+            queue.put(new Entry(label, job));
+        } catch (InterruptedException e) {
+            finished();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while queueing export of " + label, e);
+        } finally {
+            synchronized (lock) {
+                if (--putting == 0) {
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until every submitted job has run and returns the failed ones
+     */
+    public Map<String, Throwable> awaitCompletion() throws IOException {
+        synchronized (lock) {
+            while (pending > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for exports", e);
+                }
+            }
+        }
+        synchronized (failures) {
+            return new LinkedHashMap<>(failures);
+        }
+    }
+
+    // Jobs already queued still run; returns once the writer threads have drained the queue
+    @Override
+    public void close() {
+        try {
+            synchronized (lock) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                // Entries being queued by racing submits must land ahead of the STOP markers
+                while (putting > 0) {
+                    lock.wait();
+                }
+            }
+            for (int i = 0; i < writers.length; i++) {
+                queue.put(STOP);
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Object next;
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (next == STOP) {
+                return;
+            }
+            Entry entry = (Entry) next;
+            try {
+                entry.job.write();
+            } catch (Throwable e) {
+                failures.put(entry.label, e);
+            } finally {
+                finished();
+            }
+        }
+    }
+
+    private void finished() {
+        synchronized (lock) {
+            if (--pending == 0) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private static final class Entry {
+        final String label;
+        final Job job;
+
+        Entry(String label, Job job) {
+            this.label = label;
+            this.job = job;
+        }
+    }
+}
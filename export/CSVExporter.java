@@ -1,115 +1,169 @@
 package graph.export;
 
-import graph.model.GraphData;
+import graph.model.GraphMetadata;
 import graph.metrics.Metrics;
-import java.io.FileWriter;
+import graph.metrics.Operation;
 import java.io.IOException;
 import java.util.*;
 
 public class CSVExporter {
 
     public static void exportCompleteResults(String filename, String datasetName,
-                                             GraphData graphData, List<List<Integer>> sccs,
+                                             GraphMetadata metadata, List<List<Integer>> sccs,
                                              List<Integer> componentOrder, List<Integer> taskOrder,
-                                             int source, int[] distances, List<Integer> optimalPath,
+                                             int source, int sourceComponent, int[] distances,
+                                             List<Integer> optimalPath,
                                              List<Integer> criticalPath, int criticalPathLength,
                                              long sccTime, long condensationTime, long topoTime,
                                              long spTime, long cpTime, long totalTime,
                                              Metrics sccMetrics, Metrics topoMetrics,
                                              Metrics spMetrics, Metrics cpMetrics) throws IOException {
+        exportCompleteResults(filename, datasetName, metadata, sccs, componentOrder, taskOrder,
+                source, sourceComponent, distances, optimalPath, criticalPath, criticalPathLength,
+                sccTime, condensationTime, topoTime, spTime, cpTime, totalTime,
+                sccMetrics, topoMetrics, spMetrics, cpMetrics, false, false);
+    }
 
-        try (FileWriter writer = new FileWriter(filename)) {
+    /**
+     * tables writes component membership, orders and paths as multi-row
+     * "index,value" tables instead of single quoted cells, which stay
+     * readable by CSV tools at any size. gzip compresses the file (the
+     * caller chooses the file name).
+     */
+    public static void exportCompleteResults(String filename, String datasetName,
+                                             GraphMetadata metadata, List<List<Integer>> sccs,
+                                             List<Integer> componentOrder, List<Integer> taskOrder,
+                                             int source, int sourceComponent, int[] distances,
+                                             List<Integer> optimalPath,
+                                             List<Integer> criticalPath, int criticalPathLength,
+                                             long sccTime, long condensationTime, long topoTime,
+                                             long spTime, long cpTime, long totalTime,
+                                             Metrics sccMetrics, Metrics topoMetrics,
+                                             Metrics spMetrics, Metrics cpMetrics,
+                                             boolean tables, boolean gzip) throws IOException {
+
+        try (CsvWriter writer = CsvWriter.open(filename, gzip)) {
             // Header with dataset info
-            writer.write("SMART CITY SCHEDULING ANALYSIS RESULTS\n");
-            writer.write("=======================================\n");
-            writer.write("Dataset: " + datasetName + "\n");
-            writer.write("Generated: " + new Date() + "\n\n");
+            writer.text("SMART CITY SCHEDULING ANALYSIS RESULTS\n");
+            writer.text("=======================================\n");
+            writer.text("Dataset: ").text(datasetName).newline();
+            writer.text("Generated: ").text(new Date().toString()).text("\n\n");
 
             // 1. GRAPH INFORMATION
-            writer.write("1. GRAPH INFORMATION\n");
-            writer.write("-------------------\n");
-            writer.write("Nodes," + graphData.getN() + "\n");
-            writer.write("Edges," + graphData.getEdges().size() + "\n");
-            writer.write("Source," + source + "\n");
-            writer.write("Weight Model," + graphData.getWeightModel() + "\n");
-            writer.write("Directed," + graphData.isDirected() + "\n\n");
+            writer.text("1. GRAPH INFORMATION\n");
+            writer.text("-------------------\n");
+            writer.row("Nodes", metadata.getN());
+            writer.row("Edges", metadata.getEdgeCount());
+            writer.row("Source", source);
+            writer.row("Source Component", sourceComponent);
+            writer.text("Weight Model,").text(String.valueOf(metadata.getWeightModel())).newline();
+            writer.text("Directed,").text(String.valueOf(metadata.isDirected())).text("\n\n");
 
             // 2. STRONGLY CONNECTED COMPONENTS
-            writer.write("2. STRONGLY CONNECTED COMPONENTS\n");
-            writer.write("--------------------------------\n");
-            writer.write("Total Components," + sccs.size() + "\n");
-            writer.write("Component ID,Size,Nodes\n");
-            for (int i = 0; i < sccs.size(); i++) {
-                writer.write(i + "," + sccs.get(i).size() + ",\"" + formatList(sccs.get(i)) + "\"\n");
+            writer.text("2. STRONGLY CONNECTED COMPONENTS\n");
+            writer.text("--------------------------------\n");
+            writer.row("Total Components", sccs.size());
+            if (tables) {
+                writer.text("Component ID,Size\n");
+                for (int i = 0; i < sccs.size(); i++) {
+                    writer.number(i).comma().number(sccs.get(i).size()).newline();
+                }
+                writer.newline();
+                writer.text("Component ID,Node\n");
+                for (int i = 0; i < sccs.size(); i++) {
+                    for (int node : sccs.get(i)) {
+                        writer.number(i).comma().number(node).newline();
+                    }
+                }
+            } else {
+                writer.text("Component ID,Size,Nodes\n");
+                for (int i = 0; i < sccs.size(); i++) {
+                    writer.number(i).comma().number(sccs.get(i).size()).comma()
+                            .quotedList(sccs.get(i)).newline();
+                }
             }
-            writer.write("\n");
+            writer.newline();
 
             // 3. TOPOLOGICAL ORDERING
-            writer.write("3. TOPOLOGICAL ORDERING\n");
-            writer.write("-----------------------\n");
-            writer.write("Component Order,\"" + formatList(componentOrder) + "\"\n");
-            writer.write("Task Order,\"" + formatList(taskOrder) + "\"\n\n");
+            writer.text("3. TOPOLOGICAL ORDERING\n");
+            writer.text("-----------------------\n");
+            if (tables) {
+                writer.table("Position", "Component", componentOrder).newline();
+                writer.table("Position", "Task", taskOrder).newline();
+            } else {
+                writer.text("Component Order,").quotedList(componentOrder).newline();
+                writer.text("Task Order,").quotedList(taskOrder).text("\n\n");
+            }
 
             // 4. SHORTEST PATHS
-            writer.write("4. SHORTEST PATHS FROM SOURCE " + source + "\n");
-            writer.write("----------------------------------------\n");
-            writer.write("Target Component,Distance\n");
+            writer.text("4. SHORTEST PATHS FROM SOURCE ").number(source)
+                    .text(" (COMPONENT ").number(sourceComponent).text(")").newline();
+            writer.text("----------------------------------------\n");
+            writer.text("Target Component,Distance\n");
             boolean hasReachable = false;
             for (int i = 0; i < distances.length; i++) {
-                if (distances[i] != Integer.MAX_VALUE && i != source) {
-                    writer.write(i + "," + distances[i] + "\n");
+                if (distances[i] != Integer.MAX_VALUE && i != sourceComponent) {
+                    writer.number(i).comma().number(distances[i]).newline();
                     hasReachable = true;
                 }
             }
             if (!hasReachable) {
-                writer.write("No reachable components from source\n");
+                writer.text("No reachable components from source\n");
             }
 
             if (optimalPath != null && !optimalPath.isEmpty()) {
-                writer.write("\nOptimal Path Example,\"" + formatList(optimalPath) + "\"\n");
+                if (tables) {
+                    writer.text("\nOptimal Path Example\n").table("Step", "Component", optimalPath);
+                } else {
+                    writer.text("\nOptimal Path Example,").quotedList(optimalPath).newline();
+                }
             }
-            writer.write("\n");
+            writer.newline();
 
             // 5. CRITICAL PATH
-            writer.write("5. CRITICAL PATH ANALYSIS\n");
-            writer.write("-------------------------\n");
-            writer.write("Critical Path,\"" + formatList(criticalPath) + "\"\n");
-            writer.write("Critical Path Length," + criticalPathLength + "\n\n");
+            writer.text("5. CRITICAL PATH ANALYSIS\n");
+            writer.text("-------------------------\n");
+            if (tables) {
+                writer.text("Critical Path\n").table("Step", "Component", criticalPath);
+            } else {
+                writer.text("Critical Path,").quotedList(criticalPath).newline();
+            }
+            writer.row("Critical Path Length", criticalPathLength).newline();
 
             // 6. PERFORMANCE METRICS
-            writer.write("6. PERFORMANCE METRICS\n");
-            writer.write("----------------------\n");
-            writer.write("Algorithm,Time (ns),Operations\n");
+            writer.text("6. PERFORMANCE METRICS\n");
+            writer.text("----------------------\n");
+            writer.text("Algorithm,Time (ns),Operations\n");
 
-            long sccOps = sccMetrics.getOperationCount("dfs_visit") +
-                    sccMetrics.getOperationCount("edge_traversal");
-            writer.write("SCC," + sccTime + "," + sccOps + "\n");
+            long sccOps = sccMetrics.getOperationCount(Operation.DFS_VISIT) +
+                    sccMetrics.getOperationCount(Operation.EDGE_TRAVERSAL);
+            writer.text("SCC,").number(sccTime).comma().number(sccOps).newline();
 
-            writer.write("Condensation Graph," + condensationTime + ",-\n");
+            writer.text("Condensation Graph,").number(condensationTime).text(",-\n");
 
-            long topoOps = topoMetrics.getOperationCount("queue_push") +
-                    topoMetrics.getOperationCount("queue_pop");
-            writer.write("Topological Sort," + topoTime + "," + topoOps + "\n");
+            long topoOps = topoMetrics.getOperationCount(Operation.QUEUE_PUSH) +
+                    topoMetrics.getOperationCount(Operation.QUEUE_POP);
+            writer.text("Topological Sort,").number(topoTime).comma().number(topoOps).newline();
 
-            long spOps = spMetrics.getOperationCount("relaxation");
-            writer.write("Shortest Path," + spTime + "," + spOps + "\n");
+            long spOps = spMetrics.getOperationCount(Operation.RELAXATION);
+            writer.text("Shortest Path,").number(spTime).comma().number(spOps).newline();
 
-            long cpOps = cpMetrics.getOperationCount("relaxation");
-            writer.write("Critical Path," + cpTime + "," + cpOps + "\n");
+            long cpOps = cpMetrics.getOperationCount(Operation.RELAXATION);
+            writer.text("Critical Path,").number(cpTime).comma().number(cpOps).newline();
 
             long totalOps = sccOps + topoOps + spOps + cpOps;
-            writer.write("TOTAL," + totalTime + "," + totalOps + "\n");
+            writer.text("TOTAL,").number(totalTime).comma().number(totalOps).newline();
         }
     }
 
     public static void exportSummaryResults(String filename, List<Map<String, Object>> summaryData)
             throws IOException {
-        try (FileWriter writer = new FileWriter(filename)) {
-            writer.write("SMART CITY SCHEDULING - DATASET SUMMARY\n");
-            writer.write("=======================================\n");
-            writer.write("Generated: " + new Date() + "\n\n");
+        try (CsvWriter writer = CsvWriter.open(filename, false)) {
+            writer.text("SMART CITY SCHEDULING - DATASET SUMMARY\n");
+            writer.text("=======================================\n");
+            writer.text("Generated: " + new Date() + "\n\n");
 
-            writer.write("Dataset,Nodes,Edges,SCCs,Critical Path Length,Total Time (ns),SCC Time,Condensation Time,Topo Time,SP Time,CP Time\n");
+            writer.text("Dataset,Nodes,Edges,SCCs,Critical Path Length,Total Time (ns),SCC Time,Condensation Time,Topo Time,SP Time,CP Time\n");
 
             long totalProcessingTime = 0;
             int totalNodes = 0;
@@ -117,7 +171,7 @@ public class CSVExporter {
             int totalSCCs = 0;
 
             for (Map<String, Object> data : summaryData) {
-                writer.write(String.format("%s,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d\n",
+                writer.text(String.format("%s,%d,%d,%d,%d,%d,%d,%d,%d,%d,%d\n",
                         data.get("dataset"),
                         data.get("nodes"),
                         data.get("edges"),
@@ -139,22 +193,15 @@ public class CSVExporter {
 
             // Add summary statistics (только если есть данные)
             if (!summaryData.isEmpty()) {
-                writer.write("\nSUMMARY STATISTICS\n");
-                writer.write("------------------\n");
-                writer.write("Total Datasets," + summaryData.size() + "\n");
-                writer.write("Total Nodes," + totalNodes + "\n");
-                writer.write("Total Edges," + totalEdges + "\n");
-                writer.write("Total SCCs," + totalSCCs + "\n");
-                writer.write("Total Processing Time," + totalProcessingTime + " ns\n");
-                writer.write("Average Time per Dataset," + (totalProcessingTime / summaryData.size()) + " ns\n");
+                writer.text("\nSUMMARY STATISTICS\n");
+                writer.text("------------------\n");
+                writer.text("Total Datasets," + summaryData.size() + "\n");
+                writer.text("Total Nodes," + totalNodes + "\n");
+                writer.text("Total Edges," + totalEdges + "\n");
+                writer.text("Total SCCs," + totalSCCs + "\n");
+                writer.text("Total Processing Time," + totalProcessingTime + " ns\n");
+                writer.text("Average Time per Dataset," + (totalProcessingTime / summaryData.size()) + " ns\n");
             }
         }
     }
-
-    private static String formatList(List<Integer> list) {
-        if (list == null || list.isEmpty()) {
-            return "[]";
-        }
-        return list.toString().replace("[", "").replace("]", "");
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package graph.export;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Buffered text sink for the CSV reports. Numbers are written digit by digit
+ * from a reused char buffer, so a row of integers allocates nothing.
+ */
+final class CsvWriter implements Closeable {
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final Writer out;
+    private final char[] digits = new char[20];
+
+    private CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    static CsvWriter open(String filename, boolean gzip) throws IOException {
+        OutputStream stream = new FileOutputStream(filename);
+        try {
+            if (gzip) {
+                stream = new GZIPOutputStream(stream, BUFFER_BYTES);
+            }
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+        return new CsvWriter(new BufferedWriter(
+                new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_BYTES));
+    }
+
+    CsvWriter text(String value) throws IOException {
+        out.write(value);
+        return this;
+    }
+
+    CsvWriter number(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            out.write(Long.toString(value));
+            return this;
+        }
+        boolean negative = value < 0;
+        long rest = negative ? -value : value;
+        int start = digits.length;
+        do {
+            digits[--start] = (char) ('0' + rest % 10);
+            rest /= 10;
+        } while (rest != 0);
+        if (negative) {
+            digits[--start] = '-';
+        }
+        out.write(digits, start, digits.length - start);
+        return this;
+    }
+
+    CsvWriter comma() throws IOException {
+        out.write(',');
+        return this;
+    }
+
+    CsvWriter newline() throws IOException {
+        out.write('\n');
+        return this;
+    }
+
+    // A label and a number as one "label,value" row
+    CsvWriter row(String label, long value) throws IOException {
+        return text(label).comma().number(value).newline();
+    }
+
+    // List as one quoted cell: "1, 2, 3", or "[]" when empty
+    CsvWriter quotedList(List<Integer> values) throws IOException {
+        out.write('"');
+        if (values == null || values.isEmpty()) {
+            out.write("[]");
+        } else {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                number(values.get(i));
+            }
+        }
+        out.write('"');
+        return this;
+    }
+
+    // List as a two-column table, one "index,value" row per element
+    CsvWriter table(String indexHeader, String valueHeader, List<Integer> values) throws IOException {
+        text(indexHeader).comma().text(valueHeader).newline();
+        if (values != null) {
+            for (int i = 0; i < values.size(); i++) {
+                number(i).comma().number(values.get(i)).newline();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
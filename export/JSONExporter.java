@@ -1,120 +1,176 @@
 package graph.export;
 
-import graph.model.GraphData;
+import graph.model.GraphMetadata;
 import graph.metrics.Metrics;
+import graph.metrics.Operation;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.*;
 
 
 public class JSONExporter {
     private static final ObjectMapper mapper = new ObjectMapper();
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final int BUFFER_BYTES = 1 << 16;
 
     static {
         mapper.enable(SerializationFeature.INDENT_OUTPUT);
     }
 
     public static void exportCompleteResults(String filename, String datasetName,
-                                             GraphData graphData, List<List<Integer>> sccs,
+                                             GraphMetadata metadata, List<List<Integer>> sccs,
                                              List<Integer> componentOrder, List<Integer> taskOrder,
-                                             int source, int[] distances, List<Integer> optimalPath,
+                                             int source, int sourceComponent, int[] distances,
+                                             List<Integer> optimalPath,
                                              List<Integer> criticalPath, int criticalPathLength,
                                              long sccTime, long condensationTime, long topoTime,
                                              long spTime, long cpTime, long totalTime,
                                              Metrics sccMetrics, Metrics topoMetrics,
                                              Metrics spMetrics, Metrics cpMetrics) throws IOException {
+        exportCompleteResults(filename, datasetName, metadata, sccs, componentOrder, taskOrder,
+                source, sourceComponent, distances, optimalPath, criticalPath, criticalPathLength,
+                sccTime, condensationTime, topoTime, spTime, cpTime, totalTime,
+                sccMetrics, topoMetrics, spMetrics, cpMetrics, false);
+    }
 
-        Map<String, Object> results = new LinkedHashMap<>();
-
-        // 1. Metadata
-        results.put("analysis", "Smart City Scheduling Graph Analysis");
-        results.put("dataset", datasetName);
-        results.put("timestamp", new Date().toString());
-        results.put("version", "1.0");
-
-        // 2. Graph Information
-        Map<String, Object> graphInfo = new LinkedHashMap<>();
-        graphInfo.put("nodes", graphData.getN());
-        graphInfo.put("edges", graphData.getEdges().size());
-        graphInfo.put("source", source);
-        graphInfo.put("weightModel", graphData.getWeightModel());
-        graphInfo.put("directed", graphData.isDirected());
-        results.put("graph", graphInfo);
-
-        // 3. SCC Analysis
-        Map<String, Object> sccAnalysis = new LinkedHashMap<>();
-        sccAnalysis.put("totalComponents", sccs.size());
-
-        List<Map<String, Object>> components = new ArrayList<>();
-        for (int i = 0; i < sccs.size(); i++) {
-            Map<String, Object> component = new LinkedHashMap<>();
-            component.put("id", i);
-            component.put("size", sccs.get(i).size());
-            component.put("nodes", sccs.get(i));
-            components.add(component);
-        }
-        sccAnalysis.put("components", components);
-        results.put("stronglyConnectedComponents", sccAnalysis);
-
-        // 4. Topological Ordering
-        Map<String, Object> topological = new LinkedHashMap<>();
-        topological.put("componentOrder", componentOrder);
-        topological.put("taskOrder", taskOrder);
-        results.put("topologicalOrdering", topological);
-
-        // 5. Shortest Paths
-        Map<String, Object> shortestPaths = new LinkedHashMap<>();
-        shortestPaths.put("source", source);
-
-        Map<String, Object> distanceMap = new LinkedHashMap<>();
-        boolean hasReachable = false;
-        for (int i = 0; i < distances.length; i++) {
-            if (distances[i] != Integer.MAX_VALUE && i != source) {
-                distanceMap.put("component_" + i, distances[i]);
-                hasReachable = true;
+    /**
+     * Streams the result through a JsonGenerator into a buffered file, section
+     * by section, so no intermediate tree is built and the heap footprint does
+     * not grow with the result. compact drops the indentation.
+     */
+    public static void exportCompleteResults(String filename, String datasetName,
+                                             GraphMetadata metadata, List<List<Integer>> sccs,
+                                             List<Integer> componentOrder, List<Integer> taskOrder,
+                                             int source, int sourceComponent, int[] distances,
+                                             List<Integer> optimalPath,
+                                             List<Integer> criticalPath, int criticalPathLength,
+                                             long sccTime, long condensationTime, long topoTime,
+                                             long spTime, long cpTime, long totalTime,
+                                             Metrics sccMetrics, Metrics topoMetrics,
+                                             Metrics spMetrics, Metrics cpMetrics,
+                                             boolean compact) throws IOException {
+
+        try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(filename), BUFFER_BYTES);
+             JsonGenerator json = FACTORY.createGenerator(stream, JsonEncoding.UTF8)) {
+            if (!compact) {
+                json.useDefaultPrettyPrinter();
             }
+            json.writeStartObject();
+
+            // 1. Metadata
+            json.writeStringField("analysis", "Smart City Scheduling Graph Analysis");
+            json.writeStringField("dataset", datasetName);
+            json.writeStringField("timestamp", new Date().toString());
+            json.writeStringField("version", "1.0");
+
+            // 2. Graph Information
+            json.writeObjectFieldStart("graph");
+            json.writeNumberField("nodes", metadata.getN());
+            json.writeNumberField("edges", metadata.getEdgeCount());
+            json.writeNumberField("source", source);
+            json.writeStringField("weightModel", metadata.getWeightModel());
+            json.writeBooleanField("directed", metadata.isDirected());
+            json.writeEndObject();
+
+            // 3. SCC Analysis
+            json.writeObjectFieldStart("stronglyConnectedComponents");
+            json.writeNumberField("totalComponents", sccs.size());
+            json.writeArrayFieldStart("components");
+            for (int i = 0; i < sccs.size(); i++) {
+                json.writeStartObject();
+                json.writeNumberField("id", i);
+                json.writeNumberField("size", sccs.get(i).size());
+                writeIntArrayField(json, "nodes", sccs.get(i));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+
+            // 4. Topological Ordering
+            json.writeObjectFieldStart("topologicalOrdering");
+            writeIntArrayField(json, "componentOrder", componentOrder);
+            writeIntArrayField(json, "taskOrder", taskOrder);
+            json.writeEndObject();
+
+            // 5. Shortest Paths
+            json.writeObjectFieldStart("shortestPaths");
+            json.writeNumberField("source", source);
+            json.writeNumberField("sourceComponent", sourceComponent);
+
+            boolean hasReachable = false;
+            for (int i = 0; i < distances.length && !hasReachable; i++) {
+                hasReachable = distances[i] != Integer.MAX_VALUE && i != sourceComponent;
+            }
+            if (hasReachable) {
+                json.writeObjectFieldStart("distances");
+                for (int i = 0; i < distances.length; i++) {
+                    if (distances[i] != Integer.MAX_VALUE && i != sourceComponent) {
+                        json.writeNumberField("component_" + i, distances[i]);
+                    }
+                }
+                json.writeEndObject();
+            } else {
+                json.writeStringField("distances", "No reachable components");
+            }
+
+            if (optimalPath != null && !optimalPath.isEmpty()) {
+                writeIntArrayField(json, "optimalPathExample", optimalPath);
+            }
+            json.writeEndObject();
+
+            // 6. Critical Path
+            json.writeObjectFieldStart("criticalPath");
+            writeIntArrayField(json, "path", criticalPath);
+            json.writeNumberField("length", criticalPathLength);
+            json.writeEndObject();
+
+            // 7. Performance Metrics
+            json.writeObjectFieldStart("performance");
+
+            // Real time measurements
+            json.writeObjectFieldStart("realTimeNs");
+            json.writeNumberField("scc", sccTime);
+            json.writeNumberField("condensation", condensationTime);
+            json.writeNumberField("topologicalSort", topoTime);
+            json.writeNumberField("shortestPaths", spTime);
+            json.writeNumberField("criticalPath", cpTime);
+            json.writeNumberField("total", totalTime);
+            json.writeEndObject();
+
+            // Operation counts
+            json.writeObjectFieldStart("operationCounts");
+            json.writeNumberField("dfsVisits", sccMetrics.getOperationCount(Operation.DFS_VISIT));
+            json.writeNumberField("edgeTraversals", sccMetrics.getOperationCount(Operation.EDGE_TRAVERSAL));
+            json.writeNumberField("queueOperations",
+                    topoMetrics.getOperationCount(Operation.QUEUE_PUSH) + topoMetrics.getOperationCount(Operation.QUEUE_POP));
+            json.writeNumberField("relaxations",
+                    spMetrics.getOperationCount(Operation.RELAXATION) + cpMetrics.getOperationCount(Operation.RELAXATION));
+            json.writeEndObject();
+
+            json.writeEndObject();
+            json.writeEndObject();
         }
-        shortestPaths.put("distances", hasReachable ? distanceMap : "No reachable components");
+    }
 
-        if (optimalPath != null && !optimalPath.isEmpty()) {
-            shortestPaths.put("optimalPathExample", optimalPath);
+    private static void writeIntArrayField(JsonGenerator json, String name, List<Integer> values)
+            throws IOException {
+        if (values == null) {
+            json.writeNullField(name);
+            return;
+        }
+        json.writeArrayFieldStart(name);
+        for (int value : values) {
+            json.writeNumber(value);
         }
-        results.put("shortestPaths", shortestPaths);
-
-        // 6. Critical Path
-        Map<String, Object> criticalPathResult = new LinkedHashMap<>();
-        criticalPathResult.put("path", criticalPath);
-        criticalPathResult.put("length", criticalPathLength);
-        results.put("criticalPath", criticalPathResult);
-
-        // 7. Performance Metrics
-        Map<String, Object> performance = new LinkedHashMap<>();
-
-        // Real time measurements
-        Map<String, Object> realTiming = new LinkedHashMap<>();
-        realTiming.put("scc", sccTime);
-        realTiming.put("condensation", condensationTime);
-        realTiming.put("topologicalSort", topoTime);
-        realTiming.put("shortestPaths", spTime);
-        realTiming.put("criticalPath", cpTime);
-        realTiming.put("total", totalTime);
-        performance.put("realTimeNs", realTiming);
-
-        // Operation counts
-        Map<String, Object> operations = new LinkedHashMap<>();
-        operations.put("dfsVisits", sccMetrics.getOperationCount("dfs_visit"));
-        operations.put("edgeTraversals", sccMetrics.getOperationCount("edge_traversal"));
-        operations.put("queueOperations",
-                topoMetrics.getOperationCount("queue_push") + topoMetrics.getOperationCount("queue_pop"));
-        operations.put("relaxations",
-                spMetrics.getOperationCount("relaxation") + cpMetrics.getOperationCount("relaxation"));
-        performance.put("operationCounts", operations);
-
-        results.put("performance", performance);
-
-        mapper.writeValue(new File(filename), results);
+        json.writeEndArray();
     }
 
     public static void exportSummaryResults(String filename, List<Map<String, Object>> summaryData)
@@ -0,0 +1,58 @@
+package graph.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped counters for phases where several threads report at once.
+ */
+public class ConcurrentOperationCounter implements Metrics {
+    private final LongAdder[] operationCounts;
+    private final AtomicLong elapsedTime = new AtomicLong();
+    private volatile long startTime;
+
+    public ConcurrentOperationCounter() {
+        this.operationCounts = new LongAdder[Operation.VALUES.length];
+        for (int i = 0; i < operationCounts.length; i++) {
+            operationCounts[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void increment(Operation operation) {
+        operationCounts[operation.ordinal()].increment();
+    }
+
+    @Override
+    public void add(Operation operation, long delta) {
+        operationCounts[operation.ordinal()].add(delta);
+    }
+
+    @Override
+    public long getOperationCount(Operation operation) {
+        return operationCounts[operation.ordinal()].sum();
+    }
+
+    @Override
+    public void startTimer() {
+        startTime = System.nanoTime();
+    }
+
+    @Override
+    public void stopTimer() {
+        elapsedTime.addAndGet(System.nanoTime() - startTime);
+    }
+
+    @Override
+    public long getElapsedTime() {
+        return elapsedTime.get();
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder counter : operationCounts) {
+            counter.reset();
+        }
+        elapsedTime.set(0);
+    }
+}
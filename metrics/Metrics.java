@@ -1,7 +1,37 @@
 package graph.metrics;
 
+/**
+ * Operation counts and elapsed time of one algorithm run.
+ *
+ * Hot loops do not call increment per edge or vertex: they count into local
+ * longs and flush them with one add per operation when the run ends, so
+ * counting costs nothing per edge.
+ */
 public interface Metrics {
-    void incrementOperation(String operation);
-    long getOperationCount(String operation);
+    // Shared no-op instance for runs that do not need counting
+    Metrics NONE = NoOpMetrics.INSTANCE;
+
+    void increment(Operation operation);
+    void add(Operation operation, long delta);
+    long getOperationCount(Operation operation);
+
+    void startTimer();
+    void stopTimer();
+    long getElapsedTime();
+
+    // Zeroes the operation counts and the elapsed time
     void reset();
-}
\ No newline at end of file
+
+    default void incrementOperation(String operation) {
+        Operation op = Operation.fromKey(operation);
+        if (op == null) {
+            throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+        increment(op);
+    }
+
+    default long getOperationCount(String operation) {
+        Operation op = Operation.fromKey(operation);
+        return op == null ? 0L : getOperationCount(op);
+    }
+}
@@ -0,0 +1,39 @@
+package graph.metrics;
+
+/**
+ * Metrics that records nothing. Every method is an empty final body,
+ * so once inlined the JIT removes the counting calls completely.
+ */
+public final class NoOpMetrics implements Metrics {
+    public static final NoOpMetrics INSTANCE = new NoOpMetrics();
+
+    private NoOpMetrics() {}
+
+    @Override
+    public void increment(Operation operation) {}
+
+    @Override
+    public void add(Operation operation, long delta) {}
+
+    @Override
+    public long getOperationCount(Operation operation) {
+        return 0L;
+    }
+
+    @Override
+    public void incrementOperation(String operation) {}
+
+    @Override
+    public void startTimer() {}
+
+    @Override
+    public void stopTimer() {}
+
+    @Override
+    public long getElapsedTime() {
+        return 0L;
+    }
+
+    @Override
+    public void reset() {}
+}
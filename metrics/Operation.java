@@ -0,0 +1,43 @@
+package graph.metrics;
+
+/**
+ * Predeclared operation counters. The ordinal is the slot index used by
+ * the array-backed Metrics implementations; the key is the legacy name
+ * accepted by the String-based methods.
+ */
+public enum Operation {
+    DFS_VISIT("dfs_visit"),
+    EDGE_TRAVERSAL("edge_traversal"),
+    STACK_PUSH("stack_push"),
+    STACK_POP("stack_pop"),
+    GRAPH_REVERSAL("graph_reversal"),
+    IN_DEGREE_CALC("in_degree_calc"),
+    IN_DEGREE_DECREMENT("in_degree_decrement"),
+    QUEUE_PUSH("queue_push"),
+    QUEUE_POP("queue_pop"),
+    TOPO_PROCESSING("topo_processing"),
+    RELAXATION("relaxation"),
+    DISTANCE_UPDATE("distance_update");
+
+    static final Operation[] VALUES = values();
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    // Returns null for names that are not predeclared
+    public static Operation fromKey(String key) {
+        for (Operation operation : VALUES) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        return null;
+    }
+}
@@ -1,32 +1,54 @@
-
 package graph.metrics;
 
+import java.util.Arrays;
 
-
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-
-
+/**
+ * Array-backed counters indexed by Operation ordinal.
+ * Not thread-safe: use ConcurrentOperationCounter for parallel phases.
+ */
 public class OperationCounter implements Metrics {
-    private ConcurrentMap<String, Long> operationCounts;
+    private final long[] operationCounts;
+    private long startTime;
+    private long elapsedTime;
 
     public OperationCounter() {
-        this.operationCounts = new ConcurrentHashMap<>();
+        this.operationCounts = new long[Operation.VALUES.length];
         reset();
     }
 
     @Override
-    public void incrementOperation(String operation) {
-        operationCounts.merge(operation, 1L, Long::sum);
+    public void increment(Operation operation) {
+        operationCounts[operation.ordinal()]++;
+    }
+
+    @Override
+    public void add(Operation operation, long delta) {
+        operationCounts[operation.ordinal()] += delta;
+    }
+
+    @Override
+    public long getOperationCount(Operation operation) {
+        return operationCounts[operation.ordinal()];
+    }
+
+    @Override
+    public void startTimer() {
+        startTime = System.nanoTime();
+    }
+
+    @Override
+    public void stopTimer() {
+        elapsedTime += System.nanoTime() - startTime;
     }
 
     @Override
-    public long getOperationCount(String operation) {
-        return operationCounts.getOrDefault(operation, 0L);
+    public long getElapsedTime() {
+        return elapsedTime;
     }
 
     @Override
     public void reset() {
-        operationCounts.clear();
+        Arrays.fill(operationCounts, 0L);
+        elapsedTime = 0;
     }
-}
\ No newline at end of file
+}
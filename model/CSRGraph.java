@@ -0,0 +1,186 @@
+package graph.model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable compressed sparse row (CSR) graph.
+ * The arcs of vertex u occupy [offsets[u], offsets[u + 1]) in the flat
+ * targets/weights arrays, so the whole graph is three int arrays and
+ * no per-edge objects.
+ */
+public final class CSRGraph implements WeightedGraph {
+    private final int vertices;
+    private final boolean directed;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    CSRGraph(int vertices, boolean directed, int[] offsets, int[] targets, int[] weights) {
+        this.vertices = vertices;
+        this.directed = directed;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Copies any graph into CSR form, keeping the neighbor order of every vertex.
+     */
+    public static CSRGraph of(WeightedGraph graph) {
+        if (graph instanceof CSRGraph) {
+            return (CSRGraph) graph;
+        }
+
+        int n = graph.getVertices();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.getOutDegree(u);
+        }
+
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            int base = offsets[u];
+            for (int i = 0, d = graph.getOutDegree(u); i < d; i++) {
+                targets[base + i] = graph.getNeighbor(u, i);
+                weights[base + i] = graph.getNeighborWeight(u, i);
+            }
+        }
+
+        return new CSRGraph(n, graph.isDirected(), offsets, targets, weights);
+    }
+
+    /**
+     * Sorts parallel (source, target, weight) arrays into CSR form. Arcs are
+     * taken exactly as given, so undirected callers must supply both
+     * directions. The input arrays are only read and may be reused afterwards.
+     */
+    public static CSRGraph fromEdgeArrays(int vertices, boolean directed,
+                                          int[] sources, int[] targets, int[] weights, int count) {
+        int[] offsets = new int[vertices + 1];
+        for (int i = 0; i < count; i++) {
+            int u = sources[i];
+            int v = targets[i];
+            if (u < 0 || u >= vertices || v < 0 || v >= vertices) {
+                throw new IllegalArgumentException("Edge " + u + "->" + v
+                        + " out of range [0, " + vertices + ")");
+            }
+            offsets[u + 1]++;
+        }
+        for (int u = 0; u < vertices; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+
+        int[] cursor = Arrays.copyOf(offsets, vertices);
+        int[] sortedTargets = new int[count];
+        int[] sortedWeights = new int[count];
+        for (int i = 0; i < count; i++) {
+            int slot = cursor[sources[i]]++;
+            sortedTargets[slot] = targets[i];
+            sortedWeights[slot] = weights[i];
+        }
+
+        return new CSRGraph(vertices, directed, offsets, sortedTargets, sortedWeights);
+    }
+
+    @Override
+    public int getVertices() { return vertices; }
+
+    @Override
+    public int getEdgeCount() { return offsets[vertices]; }
+
+    @Override
+    public boolean isDirected() { return directed; }
+
+    @Override
+    public int getOutDegree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    @Override
+    public int getNeighbor(int vertex, int index) {
+        return targets[offsets[vertex] + index];
+    }
+
+    @Override
+    public int getNeighborWeight(int vertex, int index) {
+        return weights[offsets[vertex] + index];
+    }
+
+    // Flat-array access for hot loops: for (int e = edgeStart(u); e < edgeEnd(u); e++)
+    public int edgeStart(int vertex) { return offsets[vertex]; }
+    public int edgeEnd(int vertex) { return offsets[vertex + 1]; }
+    public int edgeTarget(int edge) { return targets[edge]; }
+    public int edgeWeight(int edge) { return weights[edge]; }
+
+    /**
+     * Accumulates arcs in growable primitive arrays and sorts them into CSR
+     * order with a stable counting sort, so arcs keep their insertion order
+     * per source vertex (the same order {@link Graph#addEdge} produces).
+     */
+    public static class Builder {
+        private final int vertices;
+        private final boolean directed;
+        private int[] sources;
+        private int[] targets;
+        private int[] weights;
+        private int size;
+
+        public Builder(int vertices, boolean directed) {
+            this(vertices, directed, 16);
+        }
+
+        public Builder(int vertices, boolean directed, int expectedEdges) {
+            if (vertices < 0) {
+                throw new IllegalArgumentException("Vertex count must be non-negative: " + vertices);
+            }
+            this.vertices = vertices;
+            this.directed = directed;
+            int capacity = Math.max(16, directed ? expectedEdges : 2 * expectedEdges);
+            this.sources = new int[capacity];
+            this.targets = new int[capacity];
+            this.weights = new int[capacity];
+        }
+
+        public Builder addEdge(int u, int v, int weight) {
+            checkVertex(u);
+            checkVertex(v);
+            append(u, v, weight);
+            if (!directed) {
+                append(v, u, weight);
+            }
+            return this;
+        }
+
+        public int getEdgeCount() {
+            return size;
+        }
+
+        private void append(int u, int v, int weight) {
+            if (size == sources.length) {
+                int capacity = sources.length + (sources.length >> 1);
+                if (capacity < 0 || capacity > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Too many edges for CSR storage");
+                }
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            sources[size] = u;
+            targets[size] = v;
+            weights[size] = weight;
+            size++;
+        }
+
+        private void checkVertex(int vertex) {
+            if (vertex < 0 || vertex >= vertices) {
+                throw new IllegalArgumentException(
+                        "Vertex " + vertex + " out of range [0, " + vertices + ")");
+            }
+        }
+
+        public CSRGraph build() {
+            return fromEdgeArrays(vertices, directed, sources, targets, weights, size);
+        }
+    }
+}
@@ -2,10 +2,11 @@ package graph.model;
 
 import java.util.*;
 
-public class Graph {
+public class Graph implements WeightedGraph {
     private int vertices;
     private List<List<Edge>> adjacencyList;
     private boolean directed;
+    private int edgeCount;
 
     public Graph(int vertices, boolean directed) {
         this.vertices = vertices;
@@ -18,8 +19,10 @@ public class Graph {
 
     public void addEdge(int u, int v, int weight) {
         adjacencyList.get(u).add(new Edge(v, weight));
+        edgeCount++;
         if (!directed) {
             adjacencyList.get(v).add(new Edge(u, weight));
+            edgeCount++;
         }
     }
 
@@ -27,8 +30,30 @@ public class Graph {
         return adjacencyList.get(vertex);
     }
 
+    @Override
     public int getVertices() { return vertices; }
 
+    @Override
+    public int getEdgeCount() { return edgeCount; }
+
+    @Override
+    public boolean isDirected() { return directed; }
+
+    @Override
+    public int getOutDegree(int vertex) {
+        return adjacencyList.get(vertex).size();
+    }
+
+    @Override
+    public int getNeighbor(int vertex, int index) {
+        return adjacencyList.get(vertex).get(index).target;
+    }
+
+    @Override
+    public int getNeighborWeight(int vertex, int index) {
+        return adjacencyList.get(vertex).get(index).weight;
+    }
+
     public static class Edge {
         public final int target;
         public final int weight;
@@ -38,4 +63,4 @@ public class Graph {
             this.weight = weight;
         }
     }
-}
\ No newline at end of file
+}
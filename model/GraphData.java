@@ -1,5 +1,6 @@
 package graph.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -23,6 +24,11 @@ public class GraphData {
     @JsonProperty("weight_model")
     private String weightModel;
 
+    // Per-vertex task durations for the "node" weight model
+    @JsonProperty("durations")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private int[] durations;
+
 
     public GraphData() {}
 
@@ -75,6 +81,14 @@ public class GraphData {
         this.weightModel = weightModel;
     }
 
+    public int[] getDurations() {
+        return durations;
+    }
+
+    public void setDurations(int[] durations) {
+        this.durations = durations;
+    }
+
 
     public void save(String filename, ObjectMapper mapper) throws IOException {
         mapper.writeValue(new File(filename), this);
@@ -0,0 +1,49 @@
+package graph.model;
+
+/**
+ * Dataset header fields (everything in a dataset file except the edge list).
+ */
+public class GraphMetadata {
+    private final int n;
+    private final int edgeCount;
+    private final boolean directed;
+    private final Integer source;
+    private final String weightModel;
+
+    public GraphMetadata(int n, int edgeCount, boolean directed, Integer source, String weightModel) {
+        this.n = n;
+        this.edgeCount = edgeCount;
+        this.directed = directed;
+        this.source = source;
+        this.weightModel = weightModel;
+    }
+
+    public static GraphMetadata of(GraphData graphData) {
+        return new GraphMetadata(graphData.getN(), graphData.getEdges().size(),
+                graphData.isDirected(), graphData.getSource(), graphData.getWeightModel());
+    }
+
+    public int getN() { return n; }
+
+    // Number of edges as listed in the dataset (undirected edges counted once)
+    public int getEdgeCount() { return edgeCount; }
+
+    public boolean isDirected() { return directed; }
+
+    public Integer getSource() { return source; }
+
+    public String getWeightModel() { return weightModel; }
+
+    public WeightModel getWeightModelType() { return WeightModel.fromName(weightModel); }
+
+    @Override
+    public String toString() {
+        return "GraphMetadata{" +
+                "n=" + n +
+                ", edges=" + edgeCount +
+                ", directed=" + directed +
+                ", source=" + source +
+                ", weightModel='" + weightModel + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+package graph.model;
+
+import java.nio.IntBuffer;
+
+/**
+ * CSR graph whose arrays live in (typically memory-mapped) IntBuffers
+ * instead of the Java heap. Same layout and contract as CSRGraph.
+ */
+public final class MappedCSRGraph implements WeightedGraph {
+    private final int vertices;
+    private final boolean directed;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+
+    public MappedCSRGraph(int vertices, boolean directed,
+                          IntBuffer offsets, IntBuffer targets, IntBuffer weights) {
+        if (offsets.capacity() != vertices + 1) {
+            throw new IllegalArgumentException("Expected " + (vertices + 1)
+                    + " offsets but found " + offsets.capacity());
+        }
+        if (targets.capacity() != offsets.get(vertices) || weights.capacity() != targets.capacity()) {
+            throw new IllegalArgumentException("Target/weight arrays do not match the offsets");
+        }
+        this.vertices = vertices;
+        this.directed = directed;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    @Override
+    public int getVertices() { return vertices; }
+
+    @Override
+    public int getEdgeCount() { return offsets.get(vertices); }
+
+    @Override
+    public boolean isDirected() { return directed; }
+
+    @Override
+    public int getOutDegree(int vertex) {
+        return offsets.get(vertex + 1) - offsets.get(vertex);
+    }
+
+    @Override
+    public int getNeighbor(int vertex, int index) {
+        return targets.get(offsets.get(vertex) + index);
+    }
+
+    @Override
+    public int getNeighborWeight(int vertex, int index) {
+        return weights.get(offsets.get(vertex) + index);
+    }
+}
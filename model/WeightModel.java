@@ -0,0 +1,37 @@
+package graph.model;
+
+import java.util.Arrays;
+
+/**
+ * Where a dataset keeps its costs: on edges ("edge", the default) or on
+ * vertices as task durations ("node"). The key is the dataset's
+ * weight_model value.
+ */
+public enum WeightModel {
+    EDGE("edge"),
+    NODE("node");
+
+    private final String key;
+
+    WeightModel(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    // A dataset without weight_model uses edge weights
+    public static WeightModel fromName(String name) {
+        if (name == null) {
+            return EDGE;
+        }
+        for (WeightModel model : values()) {
+            if (model.key.equalsIgnoreCase(name)) {
+                return model;
+            }
+        }
+        throw new IllegalArgumentException("Unknown weight model: " + name
+                + " (expected one of " + Arrays.toString(values()) + ")");
+    }
+}
@@ -0,0 +1,26 @@
+package graph.model;
+
+/**
+ * Read-only view of a weighted adjacency structure.
+ * Neighbors are addressed by (vertex, index) so callers can iterate
+ * without allocating iterators or edge objects:
+ *
+ *     for (int i = 0, d = graph.getOutDegree(u); i < d; i++) {
+ *         int v = graph.getNeighbor(u, i);
+ *         int w = graph.getNeighborWeight(u, i);
+ *     }
+ */
+public interface WeightedGraph {
+    int getVertices();
+
+    // Number of stored arcs (undirected edges are stored in both directions)
+    int getEdgeCount();
+
+    boolean isDirected();
+
+    int getOutDegree(int vertex);
+
+    int getNeighbor(int vertex, int index);
+
+    int getNeighborWeight(int vertex, int index);
+}
@@ -0,0 +1,96 @@
+package graph.scc;
+
+import graph.model.CSRGraph;
+import graph.model.WeightedGraph;
+import graph.util.LongIntHashMap;
+import java.util.*;
+
+/**
+ * Shared condensation step used by every StronglyConnectedComponents implementation.
+ * Inter-component edges are deduplicated through a primitive hash map keyed by
+ * the packed (sccU, sccV) pair, whose value is the edge's slot in the output
+ * arrays so MIN/MAX can update the kept weight in place.
+ */
+final class CondensationBuilder {
+
+    private CondensationBuilder() {}
+
+    static WeightedGraph build(WeightedGraph graph, List<List<Integer>> sccs, CondensationWeight policy) {
+        // Map each original vertex to its SCC index
+        int[] sccIndex = new int[graph.getVertices()];
+        for (int i = 0; i < sccs.size(); i++) {
+            for (int node : sccs.get(i)) {
+                sccIndex[node] = i;
+            }
+        }
+        return build(graph, sccIndex, sccs.size(), policy);
+    }
+
+    // sccIndex holds the component of every vertex, components the number of them
+    static WeightedGraph build(WeightedGraph graph, int[] sccIndex, int components, CondensationWeight policy) {
+        int n = components;
+        int capacity = Math.max(16, Math.min(graph.getEdgeCount(), 1 << 20));
+        int[] sources = new int[capacity];
+        int[] targets = new int[capacity];
+        int[] weights = new int[capacity];
+        int count = 0;
+        LongIntHashMap addedEdges = new LongIntHashMap(capacity);
+
+        // Add edges between different SCCs
+        for (int u = 0; u < graph.getVertices(); u++) {
+            int sccU = sccIndex[u];
+            for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                int sccV = sccIndex[graph.getNeighbor(u, i)];
+                if (sccU == sccV) {
+                    continue;
+                }
+
+                int weight = graph.getNeighborWeight(u, i);
+                int existing = addedEdges.putIfAbsent(LongIntHashMap.pack(sccU, sccV), count);
+                if (existing == LongIntHashMap.MISSING) {
+                    if (count == sources.length) {
+                        int grown = count + (count >> 1);
+                        sources = Arrays.copyOf(sources, grown);
+                        targets = Arrays.copyOf(targets, grown);
+                        weights = Arrays.copyOf(weights, grown);
+                    }
+                    sources[count] = sccU;
+                    targets[count] = sccV;
+                    weights[count] = weight;
+                    count++;
+                } else if (policy == CondensationWeight.MIN && weight < weights[existing]) {
+                    weights[existing] = weight;
+                } else if (policy == CondensationWeight.MAX && weight > weights[existing]) {
+                    weights[existing] = weight;
+                }
+            }
+        }
+
+        return CSRGraph.fromEdgeArrays(n, true, sources, targets, weights, count);
+    }
+
+    // Duration of each component: the sum of its members' durations
+    static int[] durations(List<List<Integer>> sccs, int[] durations) {
+        int[] total = new int[sccs.size()];
+        for (int i = 0; i < total.length; i++) {
+            int sum = 0;
+            for (int node : sccs.get(i)) {
+                sum = Math.addExact(sum, durations[node]);
+            }
+            total[i] = sum;
+        }
+        return total;
+    }
+
+    static int[] durations(SCCResult components, int[] durations) {
+        int[] total = new int[components.count];
+        for (int c = 0; c < total.length; c++) {
+            int sum = 0;
+            for (int i = components.offsets[c]; i < components.offsets[c + 1]; i++) {
+                sum = Math.addExact(sum, durations[components.members[i]]);
+            }
+            total[c] = sum;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,24 @@
+package graph.scc;
+
+import java.util.Arrays;
+
+/**
+ * Which weight a condensation edge keeps when several original edges
+ * connect the same pair of components.
+ */
+public enum CondensationWeight {
+    // Weight of the first edge found, scanning vertices and their neighbors in order
+    FIRST,
+    MIN,
+    MAX;
+
+    public static CondensationWeight fromName(String name) {
+        for (CondensationWeight weight : values()) {
+            if (weight.name().equalsIgnoreCase(name)) {
+                return weight;
+            }
+        }
+        throw new IllegalArgumentException("Unknown condensation weight: " + name
+                + " (expected one of " + Arrays.toString(values()) + ")");
+    }
+}
@@ -0,0 +1,549 @@
+package graph.scc;
+
+import graph.model.CSRGraph;
+import graph.model.WeightedGraph;
+import graph.metrics.Metrics;
+import graph.metrics.Operation;
+import graph.metrics.OperationCounter;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parallel forward-backward (FW-BW) SCC with trimming.
+ * Every vertex carries a color naming the subproblem it belongs to. A
+ * subproblem first trims vertices without an in- or out-neighbor of its own
+ * color (each is a singleton component), then picks a pivot: the vertices
+ * reachable from it both forward and backward form its component, and the
+ * forward-only, backward-only and remaining vertices become independent
+ * subproblems solved with fork/join. Small subproblems fall back to an
+ * iterative Tarjan pass restricted to their color.
+ *
+ * The components are the same as those of the sequential implementations.
+ * They are listed by smallest vertex, each in ascending order, so the result
+ * does not depend on scheduling.
+ */
+public class ForwardBackwardSCC implements StronglyConnectedComponents {
+    // Subproblems smaller than this are solved with sequential Tarjan
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+    // Vertices handled by one fork/join leaf in degree counting and BFS
+    private static final int GRAIN = 1024;
+    // A pivot component below 1/64 of its subproblem signals many small SCCs,
+    // where further FW-BW rounds would cost O(n) each; Tarjan finishes those
+    private static final int SMALL_COMPONENT_RATIO = 64;
+    // Color of vertices whose component is already known
+    private static final int DONE = -1;
+    private static final int NO_COLOR = Integer.MIN_VALUE;
+    private static final int UNVISITED = -1;
+
+    private final Metrics metrics;
+    private final ForkJoinPool pool;
+
+    public ForwardBackwardSCC() {
+        this(new OperationCounter());
+    }
+
+    public ForwardBackwardSCC(Metrics metrics) {
+        this(metrics, ForkJoinPool.commonPool());
+    }
+
+    public ForwardBackwardSCC(Metrics metrics, ForkJoinPool pool) {
+        this.metrics = metrics;
+        this.pool = pool;
+    }
+
+    @Override
+    public SCCResult findComponents(WeightedGraph graph) {
+        metrics.reset(); // Reset operation counts and elapsed time
+        metrics.startTimer();
+
+        int n = graph.getVertices();
+        Search search = new Search(CSRGraph.of(graph));
+        metrics.add(Operation.GRAPH_REVERSAL, graph.getEdgeCount());
+
+        if (n > 0) {
+            int[] all = new int[n];
+            for (int v = 0; v < n; v++) {
+                all[v] = v;
+            }
+            pool.invoke(search.new SubproblemTask(all, 0, false));
+        }
+        SCCResult components = search.collect();
+
+        metrics.add(Operation.DFS_VISIT, search.visits.sum());
+        metrics.add(Operation.EDGE_TRAVERSAL, search.edges.sum());
+        metrics.stopTimer();
+        return components;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * State shared by all subproblems of one findComponents call. Subproblems own
+     * disjoint vertex sets and colors are never reused, so the plain arrays
+     * below are only written for a task's own vertices; the only contended
+     * writes are the color CASes of the parallel BFS.
+     */
+    private static final class Search {
+        private final CSRGraph forward;
+        private final int[] reverseOffsets;
+        private final int[] reverseTargets;
+        private final AtomicIntegerArray color;
+        private final AtomicInteger nextColor = new AtomicInteger(1);
+        private final int[] component;
+
+        // Trim degrees, restricted to the vertex's own color
+        private final int[] inDegree;
+        private final int[] outDegree;
+
+        // Tarjan fallback state
+        private final int[] index;
+        private final int[] lowLink;
+        private final int[] cursor;
+        private final boolean[] onStack;
+
+        private final LongAdder visits = new LongAdder();
+        private final LongAdder edges = new LongAdder();
+
+        Search(CSRGraph forward) {
+            this.forward = forward;
+            int n = forward.getVertices();
+            int m = forward.getEdgeCount();
+
+            // Reverse adjacency by counting sort over the forward arcs
+            reverseOffsets = new int[n + 1];
+            for (int e = 0; e < m; e++) {
+                reverseOffsets[forward.edgeTarget(e) + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                reverseOffsets[v + 1] += reverseOffsets[v];
+            }
+            int[] fill = Arrays.copyOf(reverseOffsets, n);
+            reverseTargets = new int[m];
+            for (int u = 0; u < n; u++) {
+                for (int e = forward.edgeStart(u), end = forward.edgeEnd(u); e < end; e++) {
+                    reverseTargets[fill[forward.edgeTarget(e)]++] = u;
+                }
+            }
+
+            color = new AtomicIntegerArray(n);
+            component = new int[n];
+            inDegree = new int[n];
+            outDegree = new int[n];
+            index = new int[n];
+            lowLink = new int[n];
+            cursor = new int[n];
+            onStack = new boolean[n];
+            Arrays.fill(index, UNVISITED);
+        }
+
+        private int start(int vertex, boolean isForward) {
+            return isForward ? forward.edgeStart(vertex) : reverseOffsets[vertex];
+        }
+
+        private int end(int vertex, boolean isForward) {
+            return isForward ? forward.edgeEnd(vertex) : reverseOffsets[vertex + 1];
+        }
+
+        private int target(int edge, boolean isForward) {
+            return isForward ? forward.edgeTarget(edge) : reverseTargets[edge];
+        }
+
+        /**
+         * Peels vertices with no in- or out-neighbor of color c and returns
+         * the vertices that still have color c.
+         */
+        private int[] trim(int[] vertices, int c) {
+            int size = vertices.length;
+            if (size >= SEQUENTIAL_THRESHOLD) {
+                new DegreeTask(vertices, 0, size, c).invoke();
+            } else {
+                countDegrees(vertices, 0, size, c);
+            }
+
+            // Vertices are marked DONE when queued so none is queued twice
+            int[] queue = new int[size];
+            int tail = 0;
+            for (int v : vertices) {
+                if (inDegree[v] == 0 || outDegree[v] == 0) {
+                    queue[tail++] = v;
+                    finish(v, v);
+                }
+            }
+            if (tail == 0) {
+                return vertices;
+            }
+
+            long scanned = 0;
+            for (int head = 0; head < tail; head++) {
+                int v = queue[head];
+                for (int e = forward.edgeStart(v), end = forward.edgeEnd(v); e < end; e++) {
+                    int w = forward.edgeTarget(e);
+                    scanned++;
+                    if (color.get(w) == c && --inDegree[w] == 0) {
+                        queue[tail++] = w;
+                        finish(w, w);
+                    }
+                }
+                for (int e = reverseOffsets[v], end = reverseOffsets[v + 1]; e < end; e++) {
+                    int w = reverseTargets[e];
+                    scanned++;
+                    if (color.get(w) == c && --outDegree[w] == 0) {
+                        queue[tail++] = w;
+                        finish(w, w);
+                    }
+                }
+            }
+            visits.add(tail);
+            edges.add(scanned);
+
+            int[] remaining = new int[size - tail];
+            int count = 0;
+            for (int v : vertices) {
+                if (color.get(v) == c) {
+                    remaining[count++] = v;
+                }
+            }
+            return remaining;
+        }
+
+        private void countDegrees(int[] vertices, int from, int to, int c) {
+            long scanned = 0;
+            for (int i = from; i < to; i++) {
+                int v = vertices[i];
+                int out = 0;
+                for (int e = forward.edgeStart(v), end = forward.edgeEnd(v); e < end; e++) {
+                    if (color.get(forward.edgeTarget(e)) == c) {
+                        out++;
+                    }
+                }
+                int in = 0;
+                for (int e = reverseOffsets[v], end = reverseOffsets[v + 1]; e < end; e++) {
+                    if (color.get(reverseTargets[e]) == c) {
+                        in++;
+                    }
+                }
+                outDegree[v] = out;
+                inDegree[v] = in;
+                scanned += forward.edgeEnd(v) - forward.edgeStart(v)
+                        + reverseOffsets[v + 1] - reverseOffsets[v];
+            }
+            edges.add(scanned);
+        }
+
+        /**
+         * Level-synchronous BFS from pivot. A vertex is visited by switching
+         * its color fromA to toA, or fromB to toB, with a CAS, so concurrent
+         * leaves never visit the same vertex twice.
+         */
+        private void reach(int pivot, boolean isForward, int limit,
+                           int fromA, int toA, int fromB, int toB) {
+            int[] frontier = new int[limit];
+            int[] next = new int[limit];
+            AtomicInteger nextSize = new AtomicInteger();
+            frontier[0] = pivot;
+            int size = 1;
+            long reached = 1;
+
+            while (size > 0) {
+                nextSize.set(0);
+                BfsTask task = new BfsTask(frontier, 0, size, next, nextSize,
+                        isForward, fromA, toA, fromB, toB);
+                if (size < 2 * GRAIN) {
+                    task.compute();
+                } else {
+                    task.invoke();
+                }
+
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+                size = nextSize.get();
+                reached += size;
+            }
+            visits.add(reached);
+        }
+
+        // Iterative Tarjan over the subgraph induced by color c
+        private void tarjan(int[] vertices, int c) {
+            int size = vertices.length;
+            int[] callStack = new int[size];
+            int[] sccStack = new int[size];
+            int callTop = 0;
+            int sccTop = 0;
+            int counter = 0;
+            long scanned = 0;
+
+            for (int root : vertices) {
+                if (index[root] != UNVISITED) {
+                    continue;
+                }
+
+                index[root] = lowLink[root] = counter++;
+                cursor[root] = forward.edgeStart(root);
+                sccStack[sccTop++] = root;
+                onStack[root] = true;
+                callStack[callTop++] = root;
+
+                while (callTop > 0) {
+                    int v = callStack[callTop - 1];
+
+                    if (cursor[v] < forward.edgeEnd(v)) {
+                        int w = forward.edgeTarget(cursor[v]++);
+                        scanned++;
+                        if (color.get(w) != c) {
+                            // Outside this subproblem, or in an already finished component
+                            continue;
+                        }
+
+                        if (index[w] == UNVISITED) {
+                            index[w] = lowLink[w] = counter++;
+                            cursor[w] = forward.edgeStart(w);
+                            sccStack[sccTop++] = w;
+                            onStack[w] = true;
+                            callStack[callTop++] = w;
+                        } else if (onStack[w] && index[w] < lowLink[v]) {
+                            lowLink[v] = index[w];
+                        }
+                        continue;
+                    }
+
+                    callTop--;
+
+                    if (lowLink[v] == index[v]) {
+                        int w;
+                        do {
+                            w = sccStack[--sccTop];
+                            onStack[w] = false;
+                            finish(w, v);
+                        } while (w != v);
+                    }
+
+                    if (callTop > 0) {
+                        int parent = callStack[callTop - 1];
+                        if (lowLink[v] < lowLink[parent]) {
+                            lowLink[parent] = lowLink[v];
+                        }
+                    }
+                }
+            }
+
+            visits.add(counter);
+            edges.add(scanned);
+        }
+
+        private void finish(int vertex, int representative) {
+            component[vertex] = representative;
+            color.set(vertex, DONE);
+        }
+
+        // Numbers components by smallest vertex; members come out ascending
+        SCCResult collect() {
+            int n = component.length;
+            int[] slot = outDegree;
+            Arrays.fill(slot, -1);
+            int[] componentOf = new int[n];
+            int count = 0;
+            for (int v = 0; v < n; v++) {
+                int representative = component[v];
+                if (slot[representative] == -1) {
+                    slot[representative] = count++;
+                }
+                componentOf[v] = slot[representative];
+            }
+            return SCCResult.fromComponentIds(componentOf, count);
+        }
+
+        final class SubproblemTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int[] vertices;
+            private final int ownColor;
+            private final boolean sequential;
+
+            SubproblemTask(int[] vertices, int color, boolean sequential) {
+                this.vertices = vertices;
+                this.ownColor = color;
+                this.sequential = sequential;
+            }
+
+            @Override
+            protected void compute() {
+                List<ForkJoinTask<?>> forked = new ArrayList<>();
+                int[] current = vertices;
+                if (sequential) {
+                    tarjan(trim(current, ownColor), ownColor);
+                    return;
+                }
+
+                // The remainder stays in this task, so long runs of small
+                // components iterate here instead of nesting subtasks
+                while (current.length > 0) {
+                    current = trim(current, ownColor);
+                    if (current.length < SEQUENTIAL_THRESHOLD) {
+                        tarjan(current, ownColor);
+                        break;
+                    }
+
+                    int pivot = current[current.length / 2];
+                    int forwardColor = nextColor.getAndIncrement();
+                    int backwardColor = nextColor.getAndIncrement();
+                    int componentColor = nextColor.getAndIncrement();
+
+                    color.set(pivot, forwardColor);
+                    reach(pivot, true, current.length, ownColor, forwardColor, NO_COLOR, NO_COLOR);
+                    color.set(pivot, componentColor);
+                    reach(pivot, false, current.length, ownColor, backwardColor, forwardColor, componentColor);
+
+                    int forwardCount = 0;
+                    int backwardCount = 0;
+                    int restCount = 0;
+                    for (int v : current) {
+                        int c = color.get(v);
+                        if (c == forwardColor) {
+                            forwardCount++;
+                        } else if (c == backwardColor) {
+                            backwardCount++;
+                        } else if (c == ownColor) {
+                            restCount++;
+                        }
+                    }
+
+                    int[] forwardOnly = new int[forwardCount];
+                    int[] backwardOnly = new int[backwardCount];
+                    int[] rest = new int[restCount];
+                    boolean smallComponent = (long) (current.length - forwardCount - backwardCount - restCount)
+                            * SMALL_COMPONENT_RATIO < current.length;
+                    forwardCount = backwardCount = restCount = 0;
+                    for (int v : current) {
+                        int c = color.get(v);
+                        if (c == componentColor) {
+                            finish(v, pivot);
+                        } else if (c == forwardColor) {
+                            forwardOnly[forwardCount++] = v;
+                        } else if (c == backwardColor) {
+                            backwardOnly[backwardCount++] = v;
+                        } else {
+                            rest[restCount++] = v;
+                        }
+                    }
+
+                    if (forwardOnly.length > 0) {
+                        forked.add(new SubproblemTask(forwardOnly, forwardColor, smallComponent).fork());
+                    }
+                    if (backwardOnly.length > 0) {
+                        forked.add(new SubproblemTask(backwardOnly, backwardColor, smallComponent).fork());
+                    }
+                    current = rest;
+                    if (smallComponent) {
+                        tarjan(trim(current, ownColor), ownColor);
+                        break;
+                    }
+                }
+
+                for (ForkJoinTask<?> task : forked) {
+                    task.join();
+                }
+            }
+        }
+
+        final class DegreeTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int[] vertices;
+            private final int from;
+            private final int to;
+            private final int ownColor;
+
+            DegreeTask(int[] vertices, int from, int to, int color) {
+                this.vertices = vertices;
+                this.from = from;
+                this.to = to;
+                this.ownColor = color;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from > GRAIN) {
+                    int mid = (from + to) >>> 1;
+                    invokeAll(new DegreeTask(vertices, from, mid, ownColor),
+                            new DegreeTask(vertices, mid, to, ownColor));
+                    return;
+                }
+                countDegrees(vertices, from, to, ownColor);
+            }
+        }
+
+        final class BfsTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int[] frontier;
+            private final int from;
+            private final int to;
+            private final int[] next;
+            private final AtomicInteger nextSize;
+            private final boolean isForward;
+            private final int fromA;
+            private final int toA;
+            private final int fromB;
+            private final int toB;
+
+            BfsTask(int[] frontier, int from, int to, int[] next, AtomicInteger nextSize,
+                    boolean isForward, int fromA, int toA, int fromB, int toB) {
+                this.frontier = frontier;
+                this.from = from;
+                this.to = to;
+                this.next = next;
+                this.nextSize = nextSize;
+                this.isForward = isForward;
+                this.fromA = fromA;
+                this.toA = toA;
+                this.fromB = fromB;
+                this.toB = toB;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from > GRAIN) {
+                    int mid = (from + to) >>> 1;
+                    invokeAll(new BfsTask(frontier, from, mid, next, nextSize, isForward, fromA, toA, fromB, toB),
+                            new BfsTask(frontier, mid, to, next, nextSize, isForward, fromA, toA, fromB, toB));
+                    return;
+                }
+
+                // Collect locally, then publish the block with one atomic reservation
+                int[] found = new int[16];
+                int count = 0;
+                long scanned = 0;
+                for (int i = from; i < to; i++) {
+                    int u = frontier[i];
+                    for (int e = start(u, isForward), end = end(u, isForward); e < end; e++) {
+                        int w = target(e, isForward);
+                        scanned++;
+                        int c = color.get(w);
+                        if ((c == fromA && color.compareAndSet(w, fromA, toA))
+                                || (c == fromB && color.compareAndSet(w, fromB, toB))) {
+                            if (count == found.length) {
+                                found = Arrays.copyOf(found, count * 2);
+                            }
+                            found[count++] = w;
+                        }
+                    }
+                }
+
+                if (count > 0) {
+                    int offset = nextSize.getAndAdd(count);
+                    System.arraycopy(found, 0, next, offset, count);
+                }
+                edges.add(scanned);
+            }
+        }
+    }
+}
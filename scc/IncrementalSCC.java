@@ -0,0 +1,478 @@
+package graph.scc;
+
+import graph.model.CSRGraph;
+import graph.model.WeightedGraph;
+import graph.metrics.Metrics;
+import graph.metrics.Operation;
+import graph.metrics.OperationCounter;
+import java.util.*;
+
+/**
+ * Strongly connected components maintained under edge insertions.
+ * Components are kept in a union-find over the vertices, and the
+ * condensation DAG is kept in a topological order with the Pearce-Kelly
+ * algorithm. An edge that agrees with the current order costs O(1). An edge
+ * that goes backwards searches only the components whose position lies
+ * between its endpoints. If that search closes a cycle, the components on
+ * it are merged into one; otherwise only the searched components are
+ * reordered.
+ *
+ * Metrics accumulate over all insertions and are reset only on construction.
+ */
+public class IncrementalSCC {
+    private final int vertices;
+    private final Metrics metrics;
+
+    // Union-find over vertices; the root vertex names the component
+    private final int[] parent;
+    private final int[] size;
+    private int componentCount;
+
+    // Members of each component as a linked list through nextMember
+    private final int[] firstMember;
+    private final int[] lastMember;
+    private final int[] nextMember;
+
+    // Condensation adjacency per root, as original vertex ids resolved with find()
+    private final int[][] out;
+    private final int[] outSize;
+    private final int[][] in;
+    private final int[] inSize;
+
+    // Topological position of every root; positions freed by merges stay unused
+    private final int[] position;
+    private final int[] nodeAt;
+
+    // Visit stamps for the bounded searches, so no per-search clearing is needed
+    private final int[] forwardMark;
+    private final int[] backwardMark;
+    private int epoch;
+
+    // Every inserted arc, for snapshots
+    private int[] edgeSources;
+    private int[] edgeTargets;
+    private int[] edgeWeights;
+    private int edgeCount;
+
+    public IncrementalSCC(int vertices) {
+        this(vertices, new OperationCounter());
+    }
+
+    public IncrementalSCC(int vertices, Metrics metrics) {
+        this.vertices = vertices;
+        this.metrics = metrics;
+        this.parent = new int[vertices];
+        this.size = new int[vertices];
+        this.firstMember = new int[vertices];
+        this.lastMember = new int[vertices];
+        this.nextMember = new int[vertices];
+        this.out = new int[vertices][];
+        this.outSize = new int[vertices];
+        this.in = new int[vertices][];
+        this.inSize = new int[vertices];
+        this.position = new int[vertices];
+        this.nodeAt = new int[vertices];
+        this.forwardMark = new int[vertices];
+        this.backwardMark = new int[vertices];
+        this.edgeSources = new int[16];
+        this.edgeTargets = new int[16];
+        this.edgeWeights = new int[16];
+
+        for (int v = 0; v < vertices; v++) {
+            parent[v] = v;
+            size[v] = 1;
+            firstMember[v] = lastMember[v] = v;
+            nextMember[v] = -1;
+            position[v] = v;
+            nodeAt[v] = v;
+        }
+        componentCount = vertices;
+        metrics.reset();
+    }
+
+    /**
+     * Starts from an existing graph: its components come from one Tarjan pass,
+     * whose output order (sinks first) reversed gives the initial topological order.
+     */
+    public IncrementalSCC(WeightedGraph graph) {
+        this(graph, new OperationCounter());
+    }
+
+    public IncrementalSCC(WeightedGraph graph, Metrics metrics) {
+        this(graph.getVertices(), metrics);
+
+        SCCResult sccs = new TarjanSCC(Metrics.NONE).findComponents(graph);
+        int slot = 0;
+        for (int i = sccs.count - 1; i >= 0; i--) {
+            int root = sccs.members[sccs.offsets[i]];
+            for (int k = sccs.offsets[i] + 1; k < sccs.offsets[i + 1]; k++) {
+                link(sccs.members[k], root);
+            }
+            position[root] = slot;
+            nodeAt[slot] = root;
+            slot++;
+        }
+        Arrays.fill(nodeAt, slot, vertices, -1);
+
+        for (int u = 0; u < vertices; u++) {
+            for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                recordEdge(u, v, graph.getNeighborWeight(u, i));
+                int cu = find(u);
+                int cv = find(v);
+                if (cu != cv) {
+                    append(u, v, cu, cv);
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts the arc u -> v. Returns true if it closed a cycle, merging components.
+     */
+    public boolean addEdge(int u, int v, int weight) {
+        checkVertex(u);
+        checkVertex(v);
+        metrics.startTimer();
+        try {
+            recordEdge(u, v, weight);
+            int cu = find(u);
+            int cv = find(v);
+            if (cu == cv) {
+                return false;
+            }
+            if (position[cu] < position[cv]) {
+                append(u, v, cu, cv);
+                return false;
+            }
+            return reorder(u, v, cu, cv);
+        } finally {
+            metrics.stopTimer();
+        }
+    }
+
+    /**
+     * Inserts a batch of arcs; returns how many of them closed a cycle.
+     */
+    public int addEdges(int[] sources, int[] targets, int[] weights, int count) {
+        int merges = 0;
+        for (int i = 0; i < count; i++) {
+            if (addEdge(sources[i], targets[i], weights[i])) {
+                merges++;
+            }
+        }
+        return merges;
+    }
+
+    public int getVertices() {
+        return vertices;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    // Representative vertex of the component containing v
+    public int componentOf(int v) {
+        checkVertex(v);
+        return find(v);
+    }
+
+    public boolean sameComponent(int u, int v) {
+        return componentOf(u) == componentOf(v);
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Materializes the current state: components in topological order (each
+     * in ascending vertex order) and their condensation, whose vertex i is
+     * component i, so 0..k-1 is already a topological order.
+     */
+    public Snapshot snapshot(CondensationWeight weight) {
+        List<List<Integer>> components = new ArrayList<>(componentCount);
+        for (int slot = 0; slot < vertices; slot++) {
+            int root = nodeAt[slot];
+            if (root == -1) {
+                continue;
+            }
+            List<Integer> members = new ArrayList<>(size[root]);
+            for (int v = firstMember[root]; v != -1; v = nextMember[v]) {
+                members.add(v);
+            }
+            Collections.sort(members);
+            components.add(members);
+        }
+
+        CSRGraph graph = CSRGraph.fromEdgeArrays(vertices, true,
+                edgeSources, edgeTargets, edgeWeights, edgeCount);
+        WeightedGraph condensation = CondensationBuilder.build(graph, components, weight);
+
+        List<Integer> order = new ArrayList<>(components.size());
+        for (int i = 0; i < components.size(); i++) {
+            order.add(i);
+        }
+        return new Snapshot(components, condensation, order);
+    }
+
+    public Snapshot snapshot() {
+        return snapshot(CondensationWeight.FIRST);
+    }
+
+    // Pearce-Kelly step for an arc cu -> cv against the current order
+    private boolean reorder(int u, int v, int cu, int cv) {
+        int upper = position[cu];
+        int lower = position[cv];
+        epoch++;
+        long visits = 0;
+        long traversals = 0;
+
+        // Forward from cv through positions <= upper; reaching cu means a cycle
+        int[] forward = new int[8];
+        int forwardCount = 0;
+        boolean cycle = false;
+        int[] stack = new int[8];
+        int top = 0;
+        stack[top++] = cv;
+        forwardMark[cv] = epoch;
+        while (top > 0) {
+            int x = stack[--top];
+            forward = push(forward, forwardCount++, x);
+            visits++;
+            if (x == cu) {
+                cycle = true;
+                continue;
+            }
+            for (int i = 0; i < outSize[x]; i++) {
+                int y = find(out[x][i]);
+                traversals++;
+                if (y != x && position[y] <= upper && forwardMark[y] != epoch) {
+                    forwardMark[y] = epoch;
+                    stack = push(stack, top++, y);
+                }
+            }
+        }
+
+        // Backward from cu through positions >= lower
+        int[] backward = new int[8];
+        int backwardCount = 0;
+        top = 0;
+        stack[top++] = cu;
+        backwardMark[cu] = epoch;
+        while (top > 0) {
+            int x = stack[--top];
+            backward = push(backward, backwardCount++, x);
+            visits++;
+            if (x == cv) {
+                continue;
+            }
+            for (int i = 0; i < inSize[x]; i++) {
+                int y = find(in[x][i]);
+                traversals++;
+                if (y != x && position[y] >= lower && backwardMark[y] != epoch) {
+                    backwardMark[y] = epoch;
+                    stack = push(stack, top++, y);
+                }
+            }
+        }
+
+        metrics.add(Operation.DFS_VISIT, visits);
+        metrics.add(Operation.EDGE_TRAVERSAL, traversals);
+
+        // Pool the positions of every searched component
+        int[] slots = new int[forwardCount + backwardCount];
+        int slotCount = 0;
+        for (int i = 0; i < backwardCount; i++) {
+            slots[slotCount++] = position[backward[i]];
+        }
+        for (int i = 0; i < forwardCount; i++) {
+            if (backwardMark[forward[i]] != epoch) {
+                slots[slotCount++] = position[forward[i]];
+            }
+        }
+        Arrays.sort(slots, 0, slotCount);
+        sortByPosition(backward, backwardCount);
+        sortByPosition(forward, forwardCount);
+
+        // New order: backward-only, then the merged component (if any), then
+        // forward-only. Backward components take the lowest slots and forward
+        // ones the highest, so each only moves towards the other side; slots
+        // freed by a merge are left empty in between
+        int merged = -1;
+        if (cycle) {
+            merged = merge(forward, forwardCount);
+        }
+        int low = 0;
+        for (int i = 0; i < backwardCount; i++) {
+            int x = backward[i];
+            if (forwardMark[x] != epoch) {
+                place(x, slots[low++]);
+            }
+        }
+        if (cycle) {
+            place(merged, slots[low++]);
+        }
+        int high = slotCount;
+        for (int i = forwardCount - 1; i >= 0; i--) {
+            int x = forward[i];
+            if (backwardMark[x] != epoch) {
+                place(x, slots[--high]);
+            }
+        }
+        while (low < high) {
+            nodeAt[slots[low++]] = -1;
+        }
+
+        if (cycle) {
+            outSize[merged] = compact(merged, out[merged], outSize[merged]);
+            inSize[merged] = compact(merged, in[merged], inSize[merged]);
+        } else {
+            append(u, v, cu, cv);
+        }
+        return cycle;
+    }
+
+    // Merges the components found by both searches into one and returns its root
+    private int merge(int[] forward, int forwardCount) {
+        int root = -1;
+        for (int i = 0; i < forwardCount; i++) {
+            int x = forward[i];
+            if (backwardMark[x] == epoch && (root == -1 || outSize[x] + inSize[x] > outSize[root] + inSize[root])) {
+                root = x;
+            }
+        }
+
+        for (int i = 0; i < forwardCount; i++) {
+            int x = forward[i];
+            if (x == root || backwardMark[x] != epoch) {
+                continue;
+            }
+            for (int k = 0; k < outSize[x]; k++) {
+                addArc(root, out[x][k], true);
+            }
+            for (int k = 0; k < inSize[x]; k++) {
+                addArc(root, in[x][k], false);
+            }
+            out[x] = in[x] = null;
+            outSize[x] = inSize[x] = 0;
+            link(x, root);
+        }
+        return root;
+    }
+
+    // Drops arcs that became internal and duplicate arcs to the same component.
+    // Takes a fresh epoch, so it must run after the search marks are consumed
+    private int compact(int root, int[] arcs, int count) {
+        if (arcs == null) {
+            return 0;
+        }
+        epoch++;
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int y = find(arcs[i]);
+            if (y != root && forwardMark[y] != epoch) {
+                forwardMark[y] = epoch;
+                arcs[kept++] = arcs[i];
+            }
+        }
+        return kept;
+    }
+
+    // Makes root the parent of x's component and splices x's member list onto root's
+    private void link(int x, int root) {
+        int child = find(x);
+        parent[child] = root;
+        size[root] += size[child];
+        nextMember[lastMember[root]] = firstMember[child];
+        lastMember[root] = lastMember[child];
+        componentCount--;
+    }
+
+    private void place(int root, int slot) {
+        position[root] = slot;
+        nodeAt[slot] = root;
+    }
+
+    private void sortByPosition(int[] roots, int count) {
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) position[roots[i]] << 32) | roots[i];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < count; i++) {
+            roots[i] = (int) keys[i];
+        }
+    }
+
+    private void append(int u, int v, int cu, int cv) {
+        addArc(cu, v, true);
+        addArc(cv, u, false);
+    }
+
+    private void addArc(int root, int vertex, boolean outgoing) {
+        int[][] lists = outgoing ? out : in;
+        int[] sizes = outgoing ? outSize : inSize;
+        int[] list = lists[root];
+        if (list == null) {
+            list = lists[root] = new int[4];
+        } else if (sizes[root] == list.length) {
+            list = lists[root] = Arrays.copyOf(list, list.length * 2);
+        }
+        list[sizes[root]++] = vertex;
+    }
+
+    private void recordEdge(int u, int v, int weight) {
+        if (edgeCount == edgeSources.length) {
+            int capacity = edgeCount + (edgeCount >> 1);
+            edgeSources = Arrays.copyOf(edgeSources, capacity);
+            edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+            edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+        }
+        edgeSources[edgeCount] = u;
+        edgeTargets[edgeCount] = v;
+        edgeWeights[edgeCount] = weight;
+        edgeCount++;
+    }
+
+    private int find(int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]]; // Path halving
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private static int[] push(int[] array, int index, int value) {
+        if (index == array.length) {
+            array = Arrays.copyOf(array, index * 2);
+        }
+        array[index] = value;
+        return array;
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertices) {
+            throw new IllegalArgumentException(
+                    "Vertex " + vertex + " out of range [0, " + vertices + ")");
+        }
+    }
+
+    /**
+     * Components in topological order, the condensation over their indices,
+     * and that order as a list for the DAG algorithms.
+     */
+    public static class Snapshot {
+        public final List<List<Integer>> components;
+        public final WeightedGraph condensation;
+        public final List<Integer> topologicalOrder;
+
+        public Snapshot(List<List<Integer>> components, WeightedGraph condensation,
+                        List<Integer> topologicalOrder) {
+            this.components = components;
+            this.condensation = condensation;
+            this.topologicalOrder = topologicalOrder;
+        }
+    }
+}
@@ -1,124 +1,152 @@
 package graph.scc;
 
-import graph.model.Graph;
+import graph.model.WeightedGraph;
 import graph.metrics.Metrics;
+import graph.metrics.Operation;
 import graph.metrics.OperationCounter;
+import graph.util.Workspace;
 import java.util.*;
 
+/**
+ * Two-pass Kosaraju SCC. Both depth-first searches run on explicit stacks
+ * and the reversed graph is built as bare CSR arrays; all scratch arrays
+ * come from the workspace.
+ */
 public class KosarajuSCC implements StronglyConnectedComponents {
-    private Metrics metrics;
+    private final Metrics metrics;
+    private final Workspace workspace;
 
     public KosarajuSCC() {
-        this.metrics = new OperationCounter();
+        this(new OperationCounter());
     }
 
-    @Override
-    public List<List<Integer>> findSCCs(Graph graph) {
-        metrics.reset(); // Reset operation counts only
-
-        int n = graph.getVertices();
-        boolean[] visited = new boolean[n];
-        Stack<Integer> stack = new Stack<>();
-
-        // First DFS pass to fill stack
-        for (int i = 0; i < n; i++) {
-            if (!visited[i]) {
-                dfsFirstPass(graph, i, visited, stack);
-            }
-        }
-
-        // Create reversed graph
-        Graph reversedGraph = reverseGraph(graph);
-
-        // Second DFS pass on reversed graph
-        Arrays.fill(visited, false);
-        List<List<Integer>> sccs = new ArrayList<>();
-
-        while (!stack.isEmpty()) {
-            int node = stack.pop();
-            metrics.incrementOperation("stack_pop");
-
-            if (!visited[node]) {
-                List<Integer> scc = new ArrayList<>();
-                dfsSecondPass(reversedGraph, node, visited, scc);
-                sccs.add(scc);
-            }
-        }
-
-        return sccs;
+    public KosarajuSCC(Metrics metrics) {
+        this(metrics, Workspace.NONE);
     }
 
-    private void dfsFirstPass(Graph graph, int node, boolean[] visited, Stack<Integer> stack) {
-        visited[node] = true;
-        metrics.incrementOperation("dfs_visit");
-
-        for (Graph.Edge edge : graph.getNeighbors(node)) {
-            metrics.incrementOperation("edge_traversal");
-            if (!visited[edge.target]) {
-                dfsFirstPass(graph, edge.target, visited, stack);
-            }
-        }
-        stack.push(node);
-        metrics.incrementOperation("stack_push");
+    public KosarajuSCC(Metrics metrics, Workspace workspace) {
+        this.metrics = metrics;
+        this.workspace = workspace;
     }
 
-    private void dfsSecondPass(Graph graph, int node, boolean[] visited, List<Integer> scc) {
-        visited[node] = true;
-        scc.add(node);
-        metrics.incrementOperation("dfs_visit");
+    @Override
+    public SCCResult findComponents(WeightedGraph graph) {
+        metrics.reset(); // Reset operation counts and elapsed time
+        metrics.startTimer();
 
-        for (Graph.Edge edge : graph.getNeighbors(node)) {
-            metrics.incrementOperation("edge_traversal");
-            if (!visited[edge.target]) {
-                dfsSecondPass(graph, edge.target, visited, scc);
+        int n = graph.getVertices();
+        boolean[] visited = workspace.booleans(n);
+        int[] finished = workspace.ints(n);
+        int[] callStack = workspace.ints(n);
+        int[] nextNeighbor = workspace.ints(n);
+        int m = graph.getEdgeCount();
+        int[] reverseOffsets = workspace.ints(n + 1);
+        int[] reverseTargets = workspace.ints(m);
+
+        try {
+            long visits = 0;
+            long traversals = 0;
+
+            // First DFS pass: vertices in order of finishing
+            int finishedCount = 0;
+            for (int i = 0; i < n; i++) {
+                if (visited[i]) {
+                    continue;
+                }
+                int top = 0;
+                callStack[top++] = i;
+                visited[i] = true;
+                nextNeighbor[i] = 0;
+                visits++;
+                while (top > 0) {
+                    int node = callStack[top - 1];
+                    if (nextNeighbor[node] < graph.getOutDegree(node)) {
+                        int target = graph.getNeighbor(node, nextNeighbor[node]++);
+                        traversals++;
+                        if (!visited[target]) {
+                            visited[target] = true;
+                            nextNeighbor[target] = 0;
+                            visits++;
+                            callStack[top++] = target;
+                        }
+                    } else {
+                        top--;
+                        finished[finishedCount++] = node;
+                    }
+                }
             }
-        }
-    }
-
-    private Graph reverseGraph(Graph original) {
-        Graph reversed = new Graph(original.getVertices(), true);
+            metrics.add(Operation.STACK_PUSH, finishedCount);
 
-        for (int u = 0; u < original.getVertices(); u++) {
-            for (Graph.Edge edge : original.getNeighbors(u)) {
-                reversed.addEdge(edge.target, u, edge.weight);
-                metrics.incrementOperation("graph_reversal");
+            // Reversed graph; each vertex lists its predecessors in original scan order
+            for (int u = 0; u < n; u++) {
+                for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                    reverseOffsets[graph.getNeighbor(u, i) + 1]++;
+                }
             }
-        }
-        return reversed;
-    }
-
-    @Override
-    public Graph buildCondensationGraph(Graph graph, List<List<Integer>> sccs) {
-        int n = sccs.size();
-        Graph condensation = new Graph(n, true);
-
-        // Map each original vertex to its SCC index
-        int[] sccIndex = new int[graph.getVertices()];
-        for (int i = 0; i < sccs.size(); i++) {
-            for (int node : sccs.get(i)) {
-                sccIndex[node] = i;
+            for (int v = 0; v < n; v++) {
+                reverseOffsets[v + 1] += reverseOffsets[v];
             }
-        }
-
-        // Add edges between different SCCs
-        Set<String> addedEdges = new HashSet<>();
-        for (int u = 0; u < graph.getVertices(); u++) {
-            for (Graph.Edge edge : graph.getNeighbors(u)) {
-                int v = edge.target;
-                int sccU = sccIndex[u];
-                int sccV = sccIndex[v];
-
-                if (sccU != sccV) {
-                    String edgeKey = sccU + "->" + sccV;
-                    if (!addedEdges.contains(edgeKey)) {
-                        condensation.addEdge(sccU, sccV, edge.weight);
-                        addedEdges.add(edgeKey);
+            int[] cursor = nextNeighbor;
+            System.arraycopy(reverseOffsets, 0, cursor, 0, n);
+            for (int u = 0; u < n; u++) {
+                for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                    reverseTargets[cursor[graph.getNeighbor(u, i)]++] = u;
+                }
+            }
+            metrics.add(Operation.GRAPH_REVERSAL, m);
+
+            // Second DFS pass on the reversed graph, latest finished first
+            Arrays.fill(visited, 0, n, false);
+            int[] componentOf = new int[n];
+            int[] offsets = new int[n + 1];
+            int[] members = new int[n];
+            int count = 0;
+            int next = 0;
+            for (int k = finishedCount - 1; k >= 0; k--) {
+                int root = finished[k];
+                if (visited[root]) {
+                    continue;
+                }
+                int top = 0;
+                callStack[top++] = root;
+                visited[root] = true;
+                nextNeighbor[root] = reverseOffsets[root];
+                componentOf[root] = count;
+                members[next++] = root;
+                visits++;
+                while (top > 0) {
+                    int node = callStack[top - 1];
+                    if (nextNeighbor[node] < reverseOffsets[node + 1]) {
+                        int target = reverseTargets[nextNeighbor[node]++];
+                        traversals++;
+                        if (!visited[target]) {
+                            visited[target] = true;
+                            nextNeighbor[target] = reverseOffsets[target];
+                            componentOf[target] = count;
+                            members[next++] = target;
+                            visits++;
+                            callStack[top++] = target;
+                        }
+                    } else {
+                        top--;
                     }
                 }
+                offsets[++count] = next;
             }
+            metrics.add(Operation.STACK_POP, finishedCount);
+            metrics.add(Operation.DFS_VISIT, visits);
+            metrics.add(Operation.EDGE_TRAVERSAL, traversals);
+
+            metrics.stopTimer();
+            return new SCCResult(count, componentOf, Arrays.copyOf(offsets, count + 1), members);
+        } finally {
+            workspace.release(visited);
+            workspace.release(finished);
+            workspace.release(callStack);
+            workspace.release(nextNeighbor);
+            workspace.release(reverseOffsets);
+            workspace.release(reverseTargets);
         }
-
-        return condensation;
     }
 
     @Override
@@ -0,0 +1,47 @@
+package graph.scc;
+
+import graph.metrics.Metrics;
+import graph.metrics.OperationCounter;
+import graph.util.Workspace;
+
+import java.util.Arrays;
+
+/**
+ * Available StronglyConnectedComponents implementations, selectable by name.
+ */
+public enum SCCAlgorithm {
+    KOSARAJU,
+    TARJAN,
+    PARALLEL;
+
+    public StronglyConnectedComponents create() {
+        return create(new OperationCounter());
+    }
+
+    public StronglyConnectedComponents create(Metrics metrics) {
+        return create(metrics, Workspace.NONE);
+    }
+
+    // PARALLEL ignores the workspace: its scratch state is shared between threads
+    public StronglyConnectedComponents create(Metrics metrics, Workspace workspace) {
+        switch (this) {
+            case PARALLEL:
+                return new ForwardBackwardSCC(metrics);
+            case TARJAN:
+                return new TarjanSCC(metrics, workspace);
+            case KOSARAJU:
+            default:
+                return new KosarajuSCC(metrics, workspace);
+        }
+    }
+
+    public static SCCAlgorithm fromName(String name) {
+        for (SCCAlgorithm algorithm : values()) {
+            if (algorithm.name().equalsIgnoreCase(name)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown SCC algorithm: " + name
+                + " (expected one of " + Arrays.toString(values()) + ")");
+    }
+}
@@ -0,0 +1,124 @@
+package graph.scc;
+
+import graph.util.IntArrays;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Strongly connected components in flat arrays: the component id of every
+ * vertex, and the members of component c in members[offsets[c]] to
+ * members[offsets[c + 1] - 1], in the order the algorithm found them.
+ * asLists gives the familiar List<List<Integer>> as a view without copying.
+ */
+public final class SCCResult {
+    public final int count;
+    public final int[] componentOf;
+    public final int[] offsets;
+    public final int[] members;
+
+    public SCCResult(int count, int[] componentOf, int[] offsets, int[] members) {
+        this.count = count;
+        this.componentOf = componentOf;
+        this.offsets = offsets;
+        this.members = members;
+    }
+
+    // Components given as lists over vertices 0..vertices-1
+    public static SCCResult fromLists(List<List<Integer>> sccs, int vertices) {
+        int count = sccs.size();
+        int[] componentOf = new int[vertices];
+        int[] offsets = new int[count + 1];
+        int[] members = new int[vertices];
+        int next = 0;
+        for (int c = 0; c < count; c++) {
+            for (int v : sccs.get(c)) {
+                componentOf[v] = c;
+                members[next++] = v;
+            }
+            offsets[c + 1] = next;
+        }
+        if (next != vertices) {
+            throw new IllegalArgumentException("Components cover " + next + " of " + vertices + " vertices");
+        }
+        return new SCCResult(count, componentOf, offsets, members);
+    }
+
+    /**
+     * Groups vertices by componentOf: component ids must be 0..count-1, and
+     * members are listed in ascending vertex order.
+     */
+    public static SCCResult fromComponentIds(int[] componentOf, int count) {
+        int[] offsets = new int[count + 1];
+        for (int c : componentOf) {
+            offsets[c + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] cursor = new int[count];
+        System.arraycopy(offsets, 0, cursor, 0, count);
+        int[] members = new int[componentOf.length];
+        for (int v = 0; v < componentOf.length; v++) {
+            members[cursor[componentOf[v]]++] = v;
+        }
+        return new SCCResult(count, componentOf, offsets, members);
+    }
+
+    public int getVertices() {
+        return componentOf.length;
+    }
+
+    public int size(int component) {
+        return offsets[component + 1] - offsets[component];
+    }
+
+    public int largestSize() {
+        int largest = 0;
+        for (int c = 0; c < count; c++) {
+            largest = Math.max(largest, size(c));
+        }
+        return largest;
+    }
+
+    public List<Integer> membersOf(int component) {
+        return IntArrays.asList(members, offsets[component], offsets[component + 1]);
+    }
+
+    /**
+     * Vertices of the components in the given order, each component's
+     * members kept together: a task order when componentOrder is a
+     * topological order of the condensation.
+     */
+    public int[] expand(int[] componentOrder) {
+        int[] order = new int[members.length];
+        int next = 0;
+        for (int c : componentOrder) {
+            int size = size(c);
+            System.arraycopy(members, offsets[c], order, next, size);
+            next += size;
+        }
+        return next == order.length ? order : Arrays.copyOf(order, next);
+    }
+
+    // Read-only view; members are boxed only when read
+    public List<List<Integer>> asLists() {
+        return new ComponentList();
+    }
+
+    private final class ComponentList extends AbstractList<List<Integer>> implements RandomAccess {
+        @Override
+        public List<Integer> get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Component " + index + " of " + count);
+            }
+            return membersOf(index);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+}
@@ -1,11 +1,43 @@
 package graph.scc;
 
-import graph.model.Graph;
+import graph.model.WeightedGraph;
 import graph.metrics.Metrics;
 import java.util.*;
 
 public interface StronglyConnectedComponents {
-    List<List<Integer>> findSCCs(Graph graph);
-    Graph buildCondensationGraph(Graph graph, List<List<Integer>> sccs);
+    SCCResult findComponents(WeightedGraph graph);
+
+    // List view of findComponents, for callers that still take lists
+    default List<List<Integer>> findSCCs(WeightedGraph graph) {
+        return findComponents(graph).asLists();
+    }
+
+    default WeightedGraph buildCondensationGraph(WeightedGraph graph, SCCResult components,
+                                                 CondensationWeight weight) {
+        return CondensationBuilder.build(graph, components.componentOf, components.count, weight);
+    }
+
+    default WeightedGraph buildCondensationGraph(WeightedGraph graph, SCCResult components) {
+        return buildCondensationGraph(graph, components, CondensationWeight.FIRST);
+    }
+
+    default WeightedGraph buildCondensationGraph(WeightedGraph graph, List<List<Integer>> sccs,
+                                                 CondensationWeight weight) {
+        return CondensationBuilder.build(graph, sccs, weight);
+    }
+
+    default WeightedGraph buildCondensationGraph(WeightedGraph graph, List<List<Integer>> sccs) {
+        return buildCondensationGraph(graph, sccs, CondensationWeight.FIRST);
+    }
+
+    // Node weights of the condensation: every component lasts as long as all its tasks together
+    default int[] condensationDurations(SCCResult components, int[] durations) {
+        return CondensationBuilder.durations(components, durations);
+    }
+
+    default int[] condensationDurations(List<List<Integer>> sccs, int[] durations) {
+        return CondensationBuilder.durations(sccs, durations);
+    }
+
     Metrics getMetrics();
-}
\ No newline at end of file
+}
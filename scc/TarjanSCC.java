@@ -0,0 +1,140 @@
+package graph.scc;
+
+import graph.model.WeightedGraph;
+import graph.metrics.Metrics;
+import graph.metrics.Operation;
+import graph.metrics.OperationCounter;
+import graph.util.Workspace;
+import java.util.*;
+
+/**
+ * Single-pass Tarjan SCC with an explicit call stack.
+ * All DFS state lives in primitive int arrays sized to the vertex count,
+ * so arbitrarily long chains do not touch the thread stack and no
+ * reversed copy of the graph is needed.
+ */
+public class TarjanSCC implements StronglyConnectedComponents {
+    private static final int UNVISITED = -1;
+
+    private final Metrics metrics;
+    private final Workspace workspace;
+
+    public TarjanSCC() {
+        this(new OperationCounter());
+    }
+
+    public TarjanSCC(Metrics metrics) {
+        this(metrics, Workspace.NONE);
+    }
+
+    // The DFS arrays are borrowed from workspace
+    public TarjanSCC(Metrics metrics, Workspace workspace) {
+        this.metrics = metrics;
+        this.workspace = workspace;
+    }
+
+    @Override
+    public SCCResult findComponents(WeightedGraph graph) {
+        metrics.reset(); // Reset operation counts and elapsed time
+        metrics.startTimer();
+
+        int n = graph.getVertices();
+        int[] index = workspace.ints(n, UNVISITED);
+        int[] lowLink = workspace.ints(n);
+        int[] nextNeighbor = workspace.ints(n);
+        boolean[] onStack = workspace.booleans(n);
+
+        // callStack replaces recursion, sccStack is Tarjan's component stack
+        int[] callStack = workspace.ints(n);
+        int[] sccStack = workspace.ints(n);
+
+        try {
+            int callTop = 0;
+            int sccTop = 0;
+            int counter = 0;
+
+            long edgeTraversals = 0;
+            long pops = 0;
+
+            // Components are written out as they are popped, in CSR form
+            int[] componentOf = new int[n];
+            int[] offsets = new int[n + 1];
+            int[] members = new int[n];
+            int count = 0;
+            int next = 0;
+
+            for (int root = 0; root < n; root++) {
+                if (index[root] != UNVISITED) {
+                    continue;
+                }
+
+                index[root] = lowLink[root] = counter++;
+                sccStack[sccTop++] = root;
+                onStack[root] = true;
+                callStack[callTop++] = root;
+
+                while (callTop > 0) {
+                    int v = callStack[callTop - 1];
+
+                    if (nextNeighbor[v] < graph.getOutDegree(v)) {
+                        int w = graph.getNeighbor(v, nextNeighbor[v]++);
+                        edgeTraversals++;
+
+                        if (index[w] == UNVISITED) {
+                            // Descend into w
+                            index[w] = lowLink[w] = counter++;
+                            sccStack[sccTop++] = w;
+                            onStack[w] = true;
+                            callStack[callTop++] = w;
+                        } else if (onStack[w] && index[w] < lowLink[v]) {
+                            lowLink[v] = index[w];
+                        }
+                        continue;
+                    }
+
+                    // All neighbors of v done: return from v
+                    callTop--;
+
+                    if (lowLink[v] == index[v]) {
+                        int w;
+                        do {
+                            w = sccStack[--sccTop];
+                            onStack[w] = false;
+                            componentOf[w] = count;
+                            members[next++] = w;
+                            pops++;
+                        } while (w != v);
+                        offsets[++count] = next;
+                    }
+
+                    if (callTop > 0) {
+                        int parent = callStack[callTop - 1];
+                        if (lowLink[v] < lowLink[parent]) {
+                            lowLink[parent] = lowLink[v];
+                        }
+                    }
+                }
+            }
+
+            // Every visited vertex is pushed exactly once
+            metrics.add(Operation.DFS_VISIT, counter);
+            metrics.add(Operation.STACK_PUSH, counter);
+            metrics.add(Operation.STACK_POP, pops);
+            metrics.add(Operation.EDGE_TRAVERSAL, edgeTraversals);
+            metrics.stopTimer();
+            return new SCCResult(count, componentOf, Arrays.copyOf(offsets, count + 1), members);
+        } finally {
+            workspace.release(index);
+            workspace.release(lowLink);
+            workspace.release(nextNeighbor);
+            workspace.release(onStack);
+            workspace.release(callStack);
+            workspace.release(sccStack);
+        }
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
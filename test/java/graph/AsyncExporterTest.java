@@ -0,0 +1,153 @@
+package graph;
+
+import graph.export.AsyncExporter;
+import org.junit.Test;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+
+public class AsyncExporterTest {
+
+    @Test
+    public void testAwaitCompletionWaitsForEveryJob() throws Exception {
+        AtomicInteger written = new AtomicInteger();
+        try (AsyncExporter exporter = new AsyncExporter(2, 2)) {
+            for (int i = 0; i < 10; i++) {
+                exporter.submit("job-" + i, () -> {
+                    sleep(10);
+                    written.incrementAndGet();
+                });
+            }
+            assertTrue(exporter.awaitCompletion().isEmpty());
+            assertEquals(10, written.get());
+        }
+    }
+
+    @Test
+    public void testFailedJobsAreReportedByLabel() throws Exception {
+        try (AsyncExporter exporter = new AsyncExporter(2, 4)) {
+            exporter.submit("ok", () -> { });
+            exporter.submit("disk-full", () -> {
+                throw new IOException("No space left on device");
+            });
+            exporter.submit("bug", () -> {
+                throw new IllegalStateException("broken exporter");
+            });
+
+            Map<String, Throwable> failures = exporter.awaitCompletion();
+            assertEquals(new HashSet<>(Arrays.asList("disk-full", "bug")), failures.keySet());
+            assertEquals("No space left on device", failures.get("disk-full").getMessage());
+            assertTrue(failures.get("bug") instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testSubmitBlocksWhileTheQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (AsyncExporter exporter = new AsyncExporter(1, 1)) {
+            // The writer holds the first job, the second fills the one queue slot
+            exporter.submit("held", () -> {
+                running.countDown();
+                awaitLatch(release);
+            });
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            exporter.submit("queued", () -> { });
+
+            CountDownLatch submitted = new CountDownLatch(1);
+            Thread producer = new Thread(() -> {
+                try {
+                    exporter.submit("blocked", () -> { });
+                    submitted.countDown();
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            producer.start();
+            assertFalse(submitted.await(200, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+            assertTrue(submitted.await(5, TimeUnit.SECONDS));
+            producer.join();
+            assertTrue(exporter.awaitCompletion().isEmpty());
+        }
+    }
+
+    @Test
+    public void testSubmitAfterCloseIsRejected() throws Exception {
+        AsyncExporter exporter = new AsyncExporter(1, 1);
+        exporter.close();
+        try {
+            exporter.submit("late", () -> { });
+            fail("A closed exporter accepts no jobs");
+        } catch (IllegalStateException expected) {
+            assertEquals("Exporter is closed", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void testCloseRunsQueuedJobsBeforeReturning() throws Exception {
+        AtomicInteger written = new AtomicInteger();
+        AsyncExporter exporter = new AsyncExporter(1, 8);
+        for (int i = 0; i < 5; i++) {
+            exporter.submit("job-" + i, () -> {
+                sleep(20);
+                written.incrementAndGet();
+            });
+        }
+        // No awaitCompletion, as when analysis throws
+        exporter.close();
+        assertEquals(5, written.get());
+    }
+
+    @Test
+    public void testEveryAcceptedSubmitRunsWhenCloseRaces() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            AtomicInteger accepted = new AtomicInteger();
+            AtomicInteger written = new AtomicInteger();
+            AsyncExporter exporter = new AsyncExporter(1, 1);
+            Thread producer = new Thread(() -> {
+                try {
+                    while (true) {
+                        exporter.submit("job", written::incrementAndGet);
+                        accepted.incrementAndGet();
+                    }
+                } catch (IllegalStateException closed) {
+                    // expected once close has started
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            producer.start();
+            Thread.sleep(round % 3);
+            exporter.close();
+
+            // A put behind the STOP markers would block the producer for good
+            producer.join(5_000);
+            assertFalse(producer.isAlive());
+            assertEquals(accepted.get(), written.get());
+            assertTrue(exporter.awaitCompletion().isEmpty());
+        }
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+}
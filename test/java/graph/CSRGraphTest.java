@@ -0,0 +1,78 @@
+package graph;
+
+import graph.model.CSRGraph;
+import graph.model.Graph;
+import graph.scc.KosarajuSCC;
+import graph.topo.KahnsTopologicalSort;
+import org.junit.Test;
+import java.util.List;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the compressed sparse row graph backend
+ */
+public class CSRGraphTest {
+
+    @Test
+    public void testBuilderKeepsInsertionOrderPerVertex() {
+        CSRGraph graph = new CSRGraph.Builder(4, true)
+                .addEdge(2, 3, 7)
+                .addEdge(0, 2, 5)
+                .addEdge(0, 1, 4)
+                .addEdge(1, 3, 6)
+                .build();
+
+        assertEquals(4, graph.getVertices());
+        assertEquals(4, graph.getEdgeCount());
+        assertEquals(2, graph.getOutDegree(0));
+        assertEquals(2, graph.getNeighbor(0, 0));
+        assertEquals(5, graph.getNeighborWeight(0, 0));
+        assertEquals(1, graph.getNeighbor(0, 1));
+        assertEquals(4, graph.getNeighborWeight(0, 1));
+        assertEquals(0, graph.getOutDegree(3));
+    }
+
+    @Test
+    public void testUndirectedEdgesStoredBothWays() {
+        CSRGraph graph = new CSRGraph.Builder(3, false)
+                .addEdge(0, 1, 2)
+                .addEdge(1, 2, 3)
+                .build();
+
+        assertEquals(4, graph.getEdgeCount());
+        assertEquals(2, graph.getOutDegree(1));
+        assertEquals(0, graph.getNeighbor(1, 0));
+        assertEquals(2, graph.getNeighbor(1, 1));
+    }
+
+    @Test
+    public void testCopyMatchesListGraph() {
+        Graph graph = new Graph(5, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 2);
+        graph.addEdge(1, 2, 3);
+        graph.addEdge(2, 3, 4);
+        graph.addEdge(3, 4, 5);
+
+        CSRGraph csr = CSRGraph.of(graph);
+        for (int u = 0; u < graph.getVertices(); u++) {
+            assertEquals(graph.getNeighbors(u).size(), csr.getOutDegree(u));
+            for (int i = 0; i < csr.getOutDegree(u); i++) {
+                assertEquals(graph.getNeighbors(u).get(i).target, csr.getNeighbor(u, i));
+                assertEquals(graph.getNeighbors(u).get(i).weight, csr.getNeighborWeight(u, i));
+            }
+        }
+
+        KosarajuSCC scc = new KosarajuSCC();
+        assertEquals(scc.findSCCs(graph), scc.findSCCs(csr));
+
+        List<Integer> order = new KahnsTopologicalSort()
+                .topologicalOrder(scc.buildCondensationGraph(csr, scc.findSCCs(csr)));
+        assertEquals(4, order.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderRejectsOutOfRangeVertex() {
+        new CSRGraph.Builder(2, true).addEdge(0, 2, 1);
+    }
+}
@@ -3,11 +3,24 @@ package graph;
 
 import graph.dagsp.DAGShortestPath;
 import graph.dagsp.CriticalPath;
+import graph.dagsp.ReachabilityIndex;
+import graph.data.LoadedGraph;
+import graph.model.CSRGraph;
 import graph.model.Graph;
+import graph.model.GraphMetadata;
+import graph.model.WeightedGraph;
+import graph.scc.SCCAlgorithm;
+import graph.scc.TarjanSCC;
+import graph.topo.KahnsTopologicalSort;
 import graph.metrics.Metrics;
+import graph.metrics.OperationCounter;
+import graph.util.Workspace;
 import org.junit.Test;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import static org.junit.Assert.*;
 
 
@@ -100,6 +113,72 @@ public class DAGShortestPathTest {
         assertEquals(4, calculatedCost); // 0-3(1) + 3-2(1) + 2-4(2) = 4
     }
 
+    @Test
+    public void testPathReconstructionWithZeroWeights() {
+        // 0 -0-> 1 -0-> 2 -1-> 3, the old backwards scan stopped at distance 0
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 0);
+        graph.addEdge(1, 2, 0);
+        graph.addEdge(2, 3, 1);
+
+        List<Integer> topoOrder = Arrays.asList(0, 1, 2, 3);
+        DAGShortestPath shortestPath = new DAGShortestPath();
+        int[] distances = shortestPath.shortestPaths(graph, 0, topoOrder);
+
+        assertEquals(Arrays.asList(0, 1, 2, 3),
+                shortestPath.reconstructPath(distances, 3, graph, topoOrder));
+        assertEquals(Arrays.asList(0, 1, 2, 3),
+                shortestPath.shortestPathTree(graph, 0, topoOrder).pathTo(3));
+    }
+
+    @Test
+    public void testPathReconstructionWithNodeWeights() {
+        // Entering a vertex costs its duration; edge weights play no part
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 3, 1);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(2, 3, 1);
+        int[] durations = {1, 5, 2, 1};
+
+        List<Integer> topoOrder = Arrays.asList(0, 1, 2, 3);
+        DAGShortestPath shortestPath = new DAGShortestPath();
+        int[] distances = shortestPath.shortestPaths(graph, 0, topoOrder, durations);
+        assertEquals(4, distances[3]); // 1 + 2 + 1 through vertex 2
+
+        assertEquals(Arrays.asList(0, 2, 3),
+                shortestPath.reconstructPath(distances, 3, graph, topoOrder, durations));
+        assertEquals(shortestPath.shortestPathTree(graph, 0, topoOrder, durations).pathTo(3),
+                shortestPath.reconstructPath(distances, 3, graph, topoOrder, durations));
+    }
+
+    @Test
+    public void testShortestPathTree() {
+        Graph graph = new Graph(6, true);
+        graph.addEdge(0, 1, 2);
+        graph.addEdge(1, 2, 3);
+        graph.addEdge(0, 3, 1);
+        graph.addEdge(3, 2, 1);
+        graph.addEdge(2, 4, 2);
+        // Vertex 5 is unreachable
+
+        List<Integer> topoOrder = Arrays.asList(0, 1, 3, 2, 4, 5);
+        DAGShortestPath.ShortestPathTree tree =
+                new DAGShortestPath().shortestPathTree(graph, 0, topoOrder);
+
+        assertEquals(4, tree.distances[4]);
+        assertEquals(2, tree.predecessors[4]);
+        assertEquals(Arrays.asList(0, 3, 2, 4), tree.pathTo(4));
+        assertTrue(tree.pathTo(5).isEmpty());
+
+        List<List<Integer>> paths = tree.pathsToAllTargets();
+        assertEquals(Arrays.asList(0), paths.get(0));
+        assertEquals(Arrays.asList(0, 1), paths.get(1));
+        assertEquals(Arrays.asList(0, 3, 2), paths.get(2));
+        assertEquals(Arrays.asList(0, 3, 2, 4), paths.get(4));
+        assertTrue(paths.get(5).isEmpty());
+    }
+
     @Test
     public void testCriticalPathLinear() {
         // Linear graph: 0->1->2->3 with weights 1,2,3
@@ -170,6 +249,189 @@ public class DAGShortestPathTest {
         assertEquals(Arrays.asList(0, 1, 4, 7), result.path);
     }
 
+    @Test
+    public void testCriticalPathAnalysis() {
+        // Same DAG as testCriticalPathComplexDAG
+        Graph graph = new Graph(8, true);
+        graph.addEdge(0, 1, 2);
+        graph.addEdge(0, 2, 3);
+        graph.addEdge(1, 3, 1);
+        graph.addEdge(1, 4, 4);
+        graph.addEdge(2, 4, 2);
+        graph.addEdge(2, 5, 3);
+        graph.addEdge(3, 6, 2);
+        graph.addEdge(4, 6, 1);
+        graph.addEdge(4, 7, 3);
+        graph.addEdge(5, 7, 2);
+
+        List<Integer> topoOrder = Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7);
+        CriticalPath.CPMResult result = new CriticalPath().analyze(graph, topoOrder);
+
+        assertEquals(9, result.projectLength);
+        assertArrayEquals(new int[]{0, 2, 3, 3, 6, 6, 7, 9}, result.earliestStart);
+        assertArrayEquals(new int[]{0, 2, 4, 7, 6, 7, 9, 9}, result.latestStart);
+        assertArrayEquals(new int[]{0, 0, 1, 4, 0, 1, 2, 0}, result.totalSlack);
+        assertArrayEquals(new int[]{0, 0, 0, 2, 0, 1, 2, 0}, result.freeSlack);
+
+        // Critical activities are exactly the edges of 0->1->4->7
+        assertArrayEquals(new int[]{0, 1, 4, 7}, result.criticalVertices);
+        assertArrayEquals(new int[]{result.edgeIndex(0, 0), result.edgeIndex(1, 1), result.edgeIndex(4, 1)},
+                result.criticalEdges);
+
+        // Activity 2->4: may start at 3, must start by 4
+        int e = result.edgeIndex(2, 0);
+        assertEquals(1, result.edgeTotalSlack[e]);
+        assertEquals(1, result.edgeFreeSlack[e]);
+    }
+
+    @Test
+    public void testNodeWeightedPaths() {
+        // 0 -> 1 -> 3 and 0 -> 2 -> 3; edge weights are ignored in the node model
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 100);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(1, 3, 100);
+        graph.addEdge(2, 3, 1);
+        int[] durations = {2, 1, 5, 3};
+        List<Integer> topoOrder = Arrays.asList(0, 1, 2, 3);
+
+        int[] distances = new DAGShortestPath().shortestPaths(graph, 0, topoOrder, durations);
+        assertArrayEquals(new int[]{2, 3, 7, 6}, distances);
+
+        CriticalPath criticalPath = new CriticalPath();
+        CriticalPath.CriticalPathResult longest = criticalPath.findCriticalPath(graph, topoOrder, durations);
+        assertEquals(10, longest.length);
+        assertEquals(Arrays.asList(0, 2, 3), longest.path);
+
+        // Task start times: 1 and 2 may start at 2, 3 waits for 2 to finish at 7
+        CriticalPath.CPMResult cpm = criticalPath.analyze(graph, topoOrder, durations);
+        assertEquals(10, cpm.projectLength);
+        assertArrayEquals(new int[]{0, 2, 2, 7}, cpm.earliestStart);
+        assertArrayEquals(new int[]{0, 6, 2, 7}, cpm.latestStart);
+        assertArrayEquals(new int[]{0, 2, 3}, cpm.criticalVertices);
+    }
+
+    @Test
+    public void testShortestPathsFromSourcesMatchesSingleSource() {
+        // Random DAG: edges only go from lower to higher ids
+        Random random = new Random(9);
+        int n = 300;
+        Graph graph = new Graph(n, true);
+        for (int e = 0; e < 1500; e++) {
+            int u = random.nextInt(n - 1);
+            graph.addEdge(u, u + 1 + random.nextInt(n - u - 1), 1 + random.nextInt(20));
+        }
+        List<Integer> topoOrder = new ArrayList<>();
+        int[] durations = new int[n];
+        for (int v = 0; v < n; v++) {
+            topoOrder.add(v);
+            durations[v] = 1 + random.nextInt(5);
+        }
+
+        // More sources than one tile, not a multiple of the tile size
+        int[] sources = new int[19];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = random.nextInt(n);
+        }
+
+        DAGShortestPath shortestPath = new DAGShortestPath();
+        DAGShortestPath.DistanceMatrix matrix = shortestPath.shortestPathsFromSources(graph, sources, topoOrder);
+        DAGShortestPath.DistanceMatrix nodeMatrix =
+                shortestPath.shortestPathsFromSources(graph, sources, topoOrder, durations);
+        for (int i = 0; i < sources.length; i++) {
+            assertArrayEquals(shortestPath.shortestPaths(graph, sources[i], topoOrder), matrix.row(i));
+            assertArrayEquals(shortestPath.shortestPaths(graph, sources[i], topoOrder, durations),
+                    nodeMatrix.row(i));
+        }
+    }
+
+    @Test
+    public void testDistanceMatrixLargerThanAnArrayIsRejected() {
+        // 1,000 sources x 3M vertices overflows int; it must fail cleanly, not wrap
+        int n = 3_000_000;
+        CSRGraph graph = new CSRGraph.Builder(n, true).build();
+        int[] topoOrder = new int[n];
+        for (int v = 0; v < n; v++) {
+            topoOrder[v] = v;
+        }
+        int[] sources = new int[1000];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = i;
+        }
+
+        try {
+            new DAGShortestPath().shortestPathsFromSources(graph, sources, topoOrder);
+            fail("A 3,000,000,000-entry matrix cannot be allocated");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("3000000000 entries"));
+        }
+    }
+
+    @Test
+    public void testRejectedSourceReturnsBorrowedArrays() {
+        Graph graph = new Graph(3, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        Workspace workspace = new Workspace();
+        DAGShortestPath shortestPath = new DAGShortestPath(new OperationCounter(), workspace);
+
+        // Vertex 2 is missing from the order, which is only noticed after borrowing
+        try {
+            shortestPath.shortestPathsFromSources(graph, new int[]{2}, new int[]{0, 1});
+            fail("Source outside the topological order");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("not found in topological order"));
+        }
+        long allocations = workspace.getAllocations();
+
+        shortestPath.shortestPathsFromSources(graph, new int[]{0}, new int[]{0, 1, 2});
+        assertEquals(allocations, workspace.getAllocations());
+    }
+
+    @Test
+    public void testReachabilityIndexMatchesSearch() {
+        Random random = new Random(13);
+        int n = 400;
+        Graph graph = new Graph(n, true);
+        for (int e = 0; e < 700; e++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), 1);
+        }
+
+        TarjanSCC scc = new TarjanSCC();
+        List<List<Integer>> sccs = scc.findSCCs(graph);
+        WeightedGraph condensation = scc.buildCondensationGraph(graph, sccs);
+        List<Integer> order = new KahnsTopologicalSort().topologicalOrder(condensation);
+
+        ReachabilityIndex bitset = ReachabilityIndex.build(sccs, condensation, order,
+                ReachabilityIndex.Kind.BITSET);
+        ReachabilityIndex interval = ReachabilityIndex.build(sccs, condensation, order,
+                ReachabilityIndex.Kind.INTERVAL);
+        assertTrue(bitset.getMemoryBytes() > 0);
+        assertTrue(interval.getMemoryBytes() > 0);
+
+        for (int u = 0; u < n; u++) {
+            // Plain BFS on the original graph as ground truth
+            boolean[] seen = new boolean[n];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            queue.add(u);
+            seen[u] = true;
+            while (!queue.isEmpty()) {
+                int x = queue.poll();
+                for (int i = 0; i < graph.getOutDegree(x); i++) {
+                    int y = graph.getNeighbor(x, i);
+                    if (!seen[y]) {
+                        seen[y] = true;
+                        queue.add(y);
+                    }
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                assertEquals(seen[v], bitset.reachable(u, v));
+                assertEquals(seen[v], interval.reachable(u, v));
+            }
+        }
+    }
+
     @Test
     public void testShortestPathMetrics() {
         Graph graph = new Graph(4, true);
@@ -208,6 +470,60 @@ public class DAGShortestPathTest {
                 metrics.getOperationCount("relaxation") > 0);
     }
 
+    @Test
+    public void testSourceVertexGivesSameDistancesForEverySCCAlgorithm() {
+        Random random = new Random(19);
+        int n = 120;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n, true);
+        for (int e = 0; e < 150; e++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(9));
+        }
+        CSRGraph graph = builder.build();
+        LoadedGraph loaded = new LoadedGraph(
+                new GraphMetadata(n, graph.getEdgeCount(), true, 17, "edge"), graph);
+
+        // Component ids differ between algorithms; distances per vertex must not
+        int[] expected = null;
+        for (SCCAlgorithm algorithm : SCCAlgorithm.values()) {
+            for (boolean parallelTopo : new boolean[] {false, true}) {
+                GraphProcessor.Options options = new GraphProcessor.Options();
+                options.sccAlgorithm = algorithm;
+                options.parallelTopo = parallelTopo;
+                options.verbosity = Verbosity.QUIET;
+                GraphProcessor.ProcessingResult result = new GraphProcessor(options).analyze(loaded, "random");
+
+                assertEquals(17, result.sourceVertex);
+                assertEquals(result.components.componentOf[17], result.sourceComponent);
+                int[] byVertex = new int[n];
+                for (int v = 0; v < n; v++) {
+                    byVertex[v] = result.shortestDistances[result.components.componentOf[v]];
+                }
+                if (expected == null) {
+                    expected = byVertex;
+                } else {
+                    assertArrayEquals(algorithm + (parallelTopo ? " parallel" : ""), expected, byVertex);
+                }
+            }
+        }
+        assertEquals(0, expected[17]);
+    }
+
+    @Test
+    public void testSourceVertexOutOfRangeIsRejected() {
+        Graph graph = new Graph(3, true);
+        graph.addEdge(0, 1, 1);
+        LoadedGraph loaded = new LoadedGraph(new GraphMetadata(3, 1, true, 3, "edge"), graph);
+        GraphProcessor.Options options = new GraphProcessor.Options();
+        options.verbosity = Verbosity.QUIET;
+
+        try {
+            new GraphProcessor(options).analyze(loaded, "bad-source");
+            fail("Source 3 is not a vertex of a 3-vertex graph");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("Source vertex 3"));
+        }
+    }
+
     @Test
     public void testSingleNodeGraph() {
         Graph graph = new Graph(1, true);
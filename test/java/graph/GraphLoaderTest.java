@@ -0,0 +1,168 @@
+package graph;
+
+import graph.data.BinaryGraphFormat;
+import graph.data.GraphLoader;
+import graph.data.LoadedGraph;
+import graph.data.StreamingGraphLoader;
+import graph.data.SyntheticGraphGenerator;
+import graph.scc.TarjanSCC;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for dataset loading
+ */
+public class GraphLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String DATASET = "{"
+            + "\"edges\": [{\"u\": 0, \"v\": 1, \"w\": 3}, {\"w\": 2, \"v\": 2, \"u\": 1}],"
+            + "\"comment\": {\"ignored\": [1, 2, 3]},"
+            + "\"n\": 3, \"directed\": true, \"source\": 0, \"weight_model\": \"edge\"}";
+
+    @Test
+    public void testStreamingLoaderReadsAllFields() throws IOException {
+        LoadedGraph loaded = new StreamingGraphLoader().load(DATASET);
+
+        assertEquals(3, loaded.metadata.getN());
+        assertEquals(2, loaded.metadata.getEdgeCount());
+        assertTrue(loaded.metadata.isDirected());
+        assertEquals(Integer.valueOf(0), loaded.metadata.getSource());
+        assertEquals("edge", loaded.metadata.getWeightModel());
+
+        assertEquals(2, loaded.graph.getEdgeCount());
+        assertEquals(1, loaded.graph.getNeighbor(0, 0));
+        assertEquals(3, loaded.graph.getNeighborWeight(0, 0));
+        assertEquals(2, loaded.graph.getNeighbor(1, 0));
+        assertEquals(2, loaded.graph.getNeighborWeight(1, 0));
+    }
+
+    @Test
+    public void testStreamingLoaderUndirectedAndReuse() throws IOException {
+        StreamingGraphLoader loader = new StreamingGraphLoader();
+        loader.load(DATASET);
+
+        LoadedGraph loaded = loader.load(
+                "{\"directed\": false, \"n\": 2, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 5}]}");
+
+        assertEquals(1, loaded.metadata.getEdgeCount());
+        assertNull(loaded.metadata.getSource());
+        assertEquals(2, loaded.graph.getEdgeCount());
+        assertEquals(0, loaded.graph.getNeighbor(1, 0));
+        assertEquals(5, loaded.graph.getNeighborWeight(1, 0));
+    }
+
+    @Test(expected = IOException.class)
+    public void testStreamingLoaderRejectsOutOfRangeEdge() throws IOException {
+        new StreamingGraphLoader().load("{\"n\": 2, \"directed\": true, \"edges\": [{\"u\": 0, \"v\": 5, \"w\": 1}]}");
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws IOException {
+        LoadedGraph original = new StreamingGraphLoader().load(DATASET);
+        File file = folder.newFile("graph" + BinaryGraphFormat.EXTENSION);
+        BinaryGraphFormat.write(original.metadata, original.graph, file);
+
+        LoadedGraph mapped = new GraphLoader().load(file);
+
+        assertEquals(original.metadata.getN(), mapped.metadata.getN());
+        assertEquals(original.metadata.getEdgeCount(), mapped.metadata.getEdgeCount());
+        assertEquals(original.metadata.isDirected(), mapped.metadata.isDirected());
+        assertEquals(original.metadata.getSource(), mapped.metadata.getSource());
+        assertEquals(original.metadata.getWeightModel(), mapped.metadata.getWeightModel());
+        for (int u = 0; u < original.graph.getVertices(); u++) {
+            assertEquals(original.graph.getOutDegree(u), mapped.graph.getOutDegree(u));
+            for (int i = 0; i < original.graph.getOutDegree(u); i++) {
+                assertEquals(original.graph.getNeighbor(u, i), mapped.graph.getNeighbor(u, i));
+                assertEquals(original.graph.getNeighborWeight(u, i), mapped.graph.getNeighborWeight(u, i));
+            }
+        }
+    }
+
+    @Test
+    public void testBinaryLoaderRejectsCorruptArrays() throws IOException {
+        LoadedGraph original = new StreamingGraphLoader().load(DATASET);
+        // 32 byte header, "edge" padded to 4 bytes, then offsets[4] and targets[2]
+        long offsetsStart = 36;
+        long targetsStart = offsetsStart + 4 * 4;
+
+        assertCorruptionRejected(original, targetsStart + 4, 3, "out of range [0, 3)");
+        assertCorruptionRejected(original, targetsStart, -1, "out of range [0, 3)");
+        assertCorruptionRejected(original, offsetsStart + 2 * 4, 0, "decrease from 1 to 0");
+        assertCorruptionRejected(original, offsetsStart + 3 * 4, 5, "expected 0 to 2");
+    }
+
+    private void assertCorruptionRejected(LoadedGraph graph, long position, int value, String message)
+            throws IOException {
+        File file = folder.newFile();
+        BinaryGraphFormat.write(graph.metadata, graph.graph, file);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(position);
+            raf.writeInt(Integer.reverseBytes(value));
+        }
+        try {
+            BinaryGraphFormat.load(file);
+            fail("Corrupt file was loaded");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains(message));
+        }
+    }
+
+    @Test
+    public void testNodeWeightModelDurations() throws IOException {
+        String json = "{\"n\": 3, \"directed\": true, \"weight_model\": \"node\","
+                + "\"durations\": [4, 1, 7], \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}]}";
+        LoadedGraph loaded = new StreamingGraphLoader().load(json);
+        assertArrayEquals(new int[]{4, 1, 7}, loaded.durations);
+
+        // Durations survive the binary format
+        File file = folder.newFile("nodes" + BinaryGraphFormat.EXTENSION);
+        BinaryGraphFormat.write(loaded, file);
+        assertArrayEquals(new int[]{4, 1, 7}, new GraphLoader().load(file).durations);
+
+        // A node-weighted dataset without durations defaults every task to 1
+        LoadedGraph defaults = new StreamingGraphLoader().load(
+                "{\"n\": 2, \"directed\": true, \"weight_model\": \"node\", \"edges\": []}");
+        assertArrayEquals(new int[]{1, 1}, defaults.durations);
+        assertNull(new StreamingGraphLoader().load(DATASET).durations);
+    }
+
+    @Test
+    public void testSyntheticGeneratorIsDeterministicAcrossFormatsAndThreads() throws IOException {
+        SyntheticGraphGenerator.Spec spec = new SyntheticGraphGenerator.Spec();
+        spec.family = SyntheticGraphGenerator.Family.PLANTED_SCC;
+        spec.vertices = 40_000;
+        spec.edges = 100_000;
+        spec.sccSize = 7;
+        spec.threads = 1;
+        File json = folder.newFile("planted.json");
+        long edges = new SyntheticGraphGenerator(spec).generate(json);
+
+        spec.threads = 3;
+        File binary = folder.newFile("planted" + BinaryGraphFormat.EXTENSION);
+        assertEquals(edges, new SyntheticGraphGenerator(spec).generate(binary));
+
+        LoadedGraph fromJson = new GraphLoader().load(json);
+        LoadedGraph fromBinary = new GraphLoader().load(binary);
+        assertEquals(edges, fromJson.graph.getEdgeCount());
+        assertEquals(Integer.valueOf(0), fromBinary.metadata.getSource());
+        for (int u = 0; u < spec.vertices; u++) {
+            assertEquals(fromJson.graph.getOutDegree(u), fromBinary.graph.getOutDegree(u));
+            for (int i = 0; i < fromJson.graph.getOutDegree(u); i++) {
+                assertEquals(fromJson.graph.getNeighbor(u, i), fromBinary.graph.getNeighbor(u, i));
+                assertEquals(fromJson.graph.getNeighborWeight(u, i), fromBinary.graph.getNeighborWeight(u, i));
+            }
+        }
+
+        // The planted blocks are exactly the SCCs
+        assertEquals((spec.vertices + spec.sccSize - 1) / spec.sccSize,
+                new TarjanSCC().findSCCs(fromBinary.graph).size());
+    }
+}
@@ -0,0 +1,167 @@
+package graph;
+
+import graph.data.LoadedGraph;
+import graph.metrics.Operation;
+import graph.model.CSRGraph;
+import graph.model.GraphMetadata;
+import graph.model.WeightedGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class ResultCacheTest {
+    private static final String SETTINGS = "KOSARAJU,FIRST,false,true";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testHitReproducesTheAnalysis() throws IOException {
+        LoadedGraph loaded = randomGraph(3, null);
+        GraphProcessor.ProcessingResult expected = analyze(loaded);
+        ResultCache cache = new ResultCache(folder.newFolder(), Long.MAX_VALUE);
+        String key = ResultCache.key(loaded, SETTINGS);
+
+        assertNull(cache.get(key, loaded, "random"));
+        cache.put(key, expected);
+        long start = System.nanoTime();
+        GraphProcessor.ProcessingResult actual = cache.get(key, loaded, "random");
+        long measured = System.nanoTime() - start;
+
+        assertNotNull(actual);
+        assertTrue(actual.cacheHit);
+        assertTrue(actual.cacheLookupTime > 0);
+        assertTrue(actual.cacheLookupTime <= measured);
+        assertFalse(expected.cacheHit);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(expected.totalRealTime, cache.getSavedTime());
+
+        assertEquals(expected.components.count, actual.components.count);
+        assertArrayEquals(expected.components.componentOf, actual.components.componentOf);
+        assertArrayEquals(expected.components.offsets, actual.components.offsets);
+        assertArrayEquals(expected.components.members, actual.components.members);
+        assertEquals(expected.sccs, actual.sccs);
+        assertSameGraph(expected.condensationGraph, actual.condensationGraph);
+        assertEquals(expected.componentOrder, actual.componentOrder);
+        assertEquals(expected.taskOrder, actual.taskOrder);
+        assertEquals(expected.sourceVertex, actual.sourceVertex);
+        assertEquals(expected.sourceComponent, actual.sourceComponent);
+        assertArrayEquals(expected.shortestDistances, actual.shortestDistances);
+        assertEquals(expected.optimalPath, actual.optimalPath);
+        assertEquals(expected.criticalPath, actual.criticalPath);
+        assertEquals(expected.criticalPathLength, actual.criticalPathLength);
+        assertEquals(expected.sccRealTime, actual.sccRealTime);
+        assertEquals(expected.totalRealTime, actual.totalRealTime);
+        for (Operation operation : Operation.values()) {
+            assertEquals(expected.sccMetrics.getOperationCount(operation),
+                    actual.sccMetrics.getOperationCount(operation));
+            assertEquals(expected.criticalPathMetrics.getOperationCount(operation),
+                    actual.criticalPathMetrics.getOperationCount(operation));
+        }
+    }
+
+    @Test
+    public void testKeyChangesWithSettingsAndDurations() {
+        int[] durations = new int[60];
+        Arrays.fill(durations, 2);
+        LoadedGraph loaded = randomGraph(5, durations);
+        String key = ResultCache.key(loaded, SETTINGS);
+
+        assertEquals(key, ResultCache.key(randomGraph(5, durations.clone()), SETTINGS));
+        assertNotEquals(key, ResultCache.key(loaded, "TARJAN,FIRST,false,true"));
+        assertNotEquals(key, ResultCache.key(loaded, "KOSARAJU,MIN,false,true"));
+
+        int[] changed = durations.clone();
+        changed[59] = 3;
+        assertNotEquals(key, ResultCache.key(randomGraph(5, changed), SETTINGS));
+        assertNotEquals(key, ResultCache.key(randomGraph(6, durations), SETTINGS));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvictedBeyondMaxBytes() throws IOException {
+        LoadedGraph loaded = randomGraph(7, null);
+        GraphProcessor.ProcessingResult result = analyze(loaded);
+        File directory = folder.newFolder();
+
+        ResultCache sizing = new ResultCache(folder.newFolder(), Long.MAX_VALUE);
+        sizing.put("size", result);
+        long entryBytes = sizing.getSizeBytes();
+
+        // Room for two entries; reading key-a makes key-b the eldest
+        ResultCache cache = new ResultCache(directory, 2 * entryBytes);
+        cache.put("key-a", result);
+        cache.put("key-b", result);
+        assertNotNull(cache.get("key-a", loaded, "key-a"));
+        cache.put("key-c", result);
+
+        assertEquals(2, cache.getEntryCount());
+        assertEquals(2 * entryBytes, cache.getSizeBytes());
+        assertFalse(new File(directory, "key-b.result").exists());
+        assertNull(cache.get("key-b", loaded, "key-b"));
+        assertNotNull(cache.get("key-a", loaded, "key-a"));
+        assertNotNull(cache.get("key-c", loaded, "key-c"));
+
+        // A new cache on the same directory picks the surviving entries up
+        ResultCache reopened = new ResultCache(directory, 2 * entryBytes);
+        assertEquals(2, reopened.getEntryCount());
+        assertNotNull(reopened.get("key-c", loaded, "key-c"));
+    }
+
+    @Test
+    public void testCorruptEntryIsDroppedAsMiss() throws IOException {
+        LoadedGraph loaded = randomGraph(9, null);
+        File directory = folder.newFolder();
+        ResultCache cache = new ResultCache(directory, Long.MAX_VALUE);
+        cache.put("corrupt", analyze(loaded));
+
+        File entry = new File(directory, "corrupt.result");
+        try (FileOutputStream out = new FileOutputStream(entry)) {
+            out.write(new byte[] {1, 2, 3});
+        }
+
+        assertNull(cache.get("corrupt", loaded, "corrupt"));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getEntryCount());
+        assertEquals(0, cache.getSizeBytes());
+        assertFalse(entry.exists());
+    }
+
+    private static GraphProcessor.ProcessingResult analyze(LoadedGraph loaded) {
+        GraphProcessor.Options options = new GraphProcessor.Options();
+        options.verbosity = Verbosity.QUIET;
+        return new GraphProcessor(options).analyze(loaded, "random");
+    }
+
+    // Cycles plus cross edges, so there are non-trivial SCCs and paths
+    private static LoadedGraph randomGraph(long seed, int[] durations) {
+        Random random = new Random(seed);
+        int n = 60;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n, true);
+        for (int e = 0; e < 90; e++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(9));
+        }
+        CSRGraph graph = builder.build();
+        String weightModel = durations != null ? "node" : "edge";
+        GraphMetadata metadata = new GraphMetadata(n, graph.getEdgeCount(), true, 4, weightModel);
+        return new LoadedGraph(metadata, graph, durations);
+    }
+
+    private static void assertSameGraph(WeightedGraph expected, WeightedGraph actual) {
+        assertEquals(expected.getVertices(), actual.getVertices());
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        for (int u = 0; u < expected.getVertices(); u++) {
+            assertEquals(expected.getOutDegree(u), actual.getOutDegree(u));
+            for (int i = 0; i < expected.getOutDegree(u); i++) {
+                assertEquals(expected.getNeighbor(u, i), actual.getNeighbor(u, i));
+                assertEquals(expected.getNeighborWeight(u, i), actual.getNeighborWeight(u, i));
+            }
+        }
+    }
+}
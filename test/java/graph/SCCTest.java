@@ -1,8 +1,18 @@
 // src/test/java/graph/SCCTest.java
 package graph;
 
+import graph.scc.CondensationWeight;
+import graph.scc.ForwardBackwardSCC;
+import graph.scc.IncrementalSCC;
 import graph.scc.KosarajuSCC;
+import graph.scc.SCCResult;
+import graph.scc.StronglyConnectedComponents;
+import graph.scc.TarjanSCC;
+import graph.model.CSRGraph;
 import graph.model.Graph;
+import graph.model.WeightedGraph;
+import graph.metrics.OperationCounter;
+import graph.util.Workspace;
 import org.junit.Test;
 import java.util.*;
 import static org.junit.Assert.*;
@@ -45,4 +55,225 @@ public class SCCTest {
             assertEquals(2, component.size());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testTarjanMatchesKosaraju() {
+        Random random = new Random(7);
+        for (int trial = 0; trial < 20; trial++) {
+            int n = 30;
+            Graph graph = new Graph(n, true);
+            for (int e = 0; e < 45; e++) {
+                graph.addEdge(random.nextInt(n), random.nextInt(n), 1);
+            }
+
+            assertEquals(asSets(new KosarajuSCC().findSCCs(graph)),
+                    asSets(new TarjanSCC().findSCCs(graph)));
+        }
+    }
+
+    @Test
+    public void testForwardBackwardMatchesTarjan() {
+        Random random = new Random(11);
+
+        // Small graphs exercise the Tarjan fallback
+        for (int trial = 0; trial < 20; trial++) {
+            int n = 30;
+            Graph graph = new Graph(n, true);
+            for (int e = 0; e < 45; e++) {
+                graph.addEdge(random.nextInt(n), random.nextInt(n), 1);
+            }
+            assertEquals(asSets(new TarjanSCC().findSCCs(graph)),
+                    asSets(new ForwardBackwardSCC().findSCCs(graph)));
+        }
+
+        // Large graphs go through trimming and forward-backward splitting:
+        // one dense random part (a giant component) plus many small cycles
+        int n = 200_000;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n, true, 4 * n);
+        int dense = n / 2;
+        for (int e = 0; e < 3 * dense; e++) {
+            builder.addEdge(random.nextInt(dense), random.nextInt(dense), 1);
+        }
+        for (int v = dense; v + 2 < n; v += 3) {
+            builder.addEdge(v, v + 1, 1);
+            builder.addEdge(v + 1, v + 2, 1);
+            builder.addEdge(v + 2, v, 1);
+            builder.addEdge(v, random.nextInt(n), 1);
+        }
+        CSRGraph graph = builder.build();
+
+        List<List<Integer>> expected = new TarjanSCC().findSCCs(graph);
+        List<List<Integer>> actual = new ForwardBackwardSCC().findSCCs(graph);
+        assertEquals(expected.size(), actual.size());
+        assertEquals(asSets(expected), asSets(actual));
+        assertEquals(actual, new ForwardBackwardSCC().findSCCs(graph));
+    }
+
+    @Test
+    public void testIncrementalMatchesRecomputation() {
+        Random random = new Random(5);
+        int n = 60;
+        Graph initial = new Graph(n, true);
+        Graph current = new Graph(n, true);
+        for (int e = 0; e < 20; e++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            initial.addEdge(u, v, 1);
+            current.addEdge(u, v, 1);
+        }
+
+        IncrementalSCC incremental = new IncrementalSCC(initial);
+        for (int batch = 0; batch < 10; batch++) {
+            int[] sources = new int[8];
+            int[] targets = new int[8];
+            int[] weights = new int[8];
+            for (int i = 0; i < 8; i++) {
+                sources[i] = random.nextInt(n);
+                targets[i] = random.nextInt(n);
+                weights[i] = 1 + random.nextInt(9);
+                current.addEdge(sources[i], targets[i], weights[i]);
+            }
+            incremental.addEdges(sources, targets, weights, 8);
+
+            List<List<Integer>> expected = new TarjanSCC().findSCCs(current);
+            IncrementalSCC.Snapshot snapshot = incremental.snapshot();
+            assertEquals(asSets(expected), asSets(snapshot.components));
+            assertEquals(expected.size(), incremental.getComponentCount());
+
+            // Components come out in topological order of the condensation
+            WeightedGraph condensation = snapshot.condensation;
+            for (int c = 0; c < condensation.getVertices(); c++) {
+                for (int i = 0; i < condensation.getOutDegree(c); i++) {
+                    assertTrue(c < condensation.getNeighbor(c, i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTarjanLongChainDoesNotOverflowStack() {
+        int n = 1_000_000;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n, true, n);
+        for (int i = 0; i + 1 < n; i++) {
+            builder.addEdge(i, i + 1, 1);
+        }
+        builder.addEdge(n - 1, 0, 1); // Close one big cycle
+
+        List<List<Integer>> sccs = new TarjanSCC().findSCCs(builder.build());
+
+        assertEquals(1, sccs.size());
+        assertEquals(n, sccs.get(0).size());
+    }
+
+    @Test
+    public void testCondensationDeduplicatesAndKeepsWeightPolicy() {
+        // Components {0,1} and {2,3}, joined by three edges with weights 5, 2, 9
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 2, 1);
+        graph.addEdge(0, 2, 5);
+        graph.addEdge(1, 3, 2);
+        graph.addEdge(1, 2, 9);
+
+        KosarajuSCC scc = new KosarajuSCC();
+        List<List<Integer>> sccs = scc.findSCCs(graph);
+        assertEquals(2, sccs.size());
+
+        int[] expected = {5, 2, 9};
+        CondensationWeight[] policies = {
+                CondensationWeight.FIRST, CondensationWeight.MIN, CondensationWeight.MAX};
+        for (int p = 0; p < policies.length; p++) {
+            WeightedGraph condensation = scc.buildCondensationGraph(graph, sccs, policies[p]);
+            assertEquals(1, condensation.getEdgeCount());
+            int from = sccs.get(0).contains(0) ? 0 : 1;
+            assertEquals(1, condensation.getOutDegree(from));
+            assertEquals(expected[p], condensation.getNeighborWeight(from, 0));
+        }
+    }
+
+    @Test
+    public void testWorkspaceReuseMatchesFreshRuns() {
+        Random random = new Random(11);
+        Workspace workspace = new Workspace();
+        long warmAllocations = -1;
+        for (int round = 0; round < 4; round++) {
+            int n = 300 - round * 10;
+            CSRGraph.Builder builder = new CSRGraph.Builder(n, true);
+            for (int e = 0; e < 3 * n; e++) {
+                builder.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(5));
+            }
+            CSRGraph graph = builder.build();
+
+            assertEquals(new KosarajuSCC().findSCCs(graph),
+                    new KosarajuSCC(new OperationCounter(), workspace).findSCCs(graph));
+            assertEquals(new TarjanSCC().findSCCs(graph),
+                    new TarjanSCC(new OperationCounter(), workspace).findSCCs(graph));
+
+            // Shrinking graphs fit the arrays from the first round
+            if (round == 0) {
+                warmAllocations = workspace.getAllocations();
+            }
+            assertEquals(warmAllocations, workspace.getAllocations());
+        }
+    }
+
+    @Test
+    public void testComponentArraysAgreeWithListView() {
+        Random random = new Random(5);
+        int n = 200;
+        CSRGraph.Builder builder = new CSRGraph.Builder(n, true);
+        for (int e = 0; e < 2 * n; e++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(5));
+        }
+        CSRGraph graph = builder.build();
+
+        for (StronglyConnectedComponents algorithm : Arrays.asList(
+                new KosarajuSCC(), new TarjanSCC(), new ForwardBackwardSCC())) {
+            SCCResult components = algorithm.findComponents(graph);
+            assertEquals(n, components.offsets[components.count]);
+            for (int c = 0; c < components.count; c++) {
+                for (int v : components.membersOf(c)) {
+                    assertEquals(c, components.componentOf[v]);
+                }
+            }
+
+            // The view behaves like copied lists everywhere lists are accepted
+            List<List<Integer>> view = algorithm.findSCCs(graph);
+            List<List<Integer>> copy = new ArrayList<>();
+            for (List<Integer> scc : view) {
+                copy.add(new ArrayList<>(scc));
+            }
+            assertEquals(copy, view);
+            assertEquals(copy.toString(), view.toString());
+            assertArrayEquals(components.members, SCCResult.fromLists(copy, n).members);
+
+            WeightedGraph fromArrays = algorithm.buildCondensationGraph(graph, components, CondensationWeight.MIN);
+            WeightedGraph fromLists = algorithm.buildCondensationGraph(graph, copy, CondensationWeight.MIN);
+            assertEquals(fromLists.getEdgeCount(), fromArrays.getEdgeCount());
+            for (int u = 0; u < components.count; u++) {
+                assertEquals(fromLists.getOutDegree(u), fromArrays.getOutDegree(u));
+                for (int i = 0; i < fromLists.getOutDegree(u); i++) {
+                    assertEquals(fromLists.getNeighbor(u, i), fromArrays.getNeighbor(u, i));
+                    assertEquals(fromLists.getNeighborWeight(u, i), fromArrays.getNeighborWeight(u, i));
+                }
+            }
+
+            try {
+                view.get(0).add(0);
+                fail("Component views are read-only");
+            } catch (UnsupportedOperationException expected) {
+                // expected
+            }
+        }
+    }
+
+    private static Set<Set<Integer>> asSets(List<List<Integer>> sccs) {
+        Set<Set<Integer>> result = new HashSet<>();
+        for (List<Integer> component : sccs) {
+            result.add(new HashSet<>(component));
+        }
+        return result;
+    }
+}
@@ -2,11 +2,14 @@
 package graph;
 
 import graph.topo.KahnsTopologicalSort;
+import graph.topo.ParallelKahnsTopologicalSort;
+import graph.model.CSRGraph;
 import graph.model.Graph;
 import graph.metrics.Metrics;
 import org.junit.Test;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import static org.junit.Assert.*;
 
 /**
@@ -138,6 +141,53 @@ public class TopologicalSortTest {
         assertTrue(result.indexOf(1) < result.indexOf(4));
     }
 
+    @Test
+    public void testParallelKahnLevels() {
+        // Wide random layered DAG, large enough to take the fork/join path
+        int layers = 20;
+        int width = 5000;
+        int n = layers * width;
+        Random random = new Random(3);
+        CSRGraph.Builder builder = new CSRGraph.Builder(n, true, 3 * n);
+        for (int u = 0; u < n - width; u++) {
+            int nextLayer = (u / width + 1) * width;
+            for (int k = 0; k < 3; k++) {
+                builder.addEdge(u, nextLayer + random.nextInt(width), 1);
+            }
+        }
+        CSRGraph graph = builder.build();
+
+        ParallelKahnsTopologicalSort topoSort = new ParallelKahnsTopologicalSort();
+        ParallelKahnsTopologicalSort.LevelOrder result = topoSort.topologicalLevels(graph);
+
+        assertEquals(n, result.order.length);
+        int[] position = new int[n];
+        for (int i = 0; i < n; i++) {
+            position[result.order[i]] = i;
+        }
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < graph.getOutDegree(u); i++) {
+                int v = graph.getNeighbor(u, i);
+                assertTrue(position[u] < position[v]);
+                assertTrue(result.level[u] < result.level[v]);
+            }
+        }
+        assertTrue(result.levelCount <= layers);
+
+        // Deterministic mode gives the same order on every run
+        assertArrayEquals(result.order, topoSort.topologicalLevels(graph).order);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelKahnWithCycle() {
+        Graph graph = new Graph(3, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+
+        new ParallelKahnsTopologicalSort().topologicalOrder(graph);
+    }
+
     /**
      * Helper method to validate that a topological order is correct
      * For every edge u->v, u should appear before v in the order
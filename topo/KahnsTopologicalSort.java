@@ -1,64 +1,90 @@
 package graph.topo;
 
-import graph.model.Graph;
+import graph.model.WeightedGraph;
 import graph.metrics.Metrics;
+import graph.metrics.Operation;
 import graph.metrics.OperationCounter;
-import java.util.*;
+import graph.util.Workspace;
 
 public class KahnsTopologicalSort implements TopologicalSort {
-    private Metrics metrics;
+    private final Metrics metrics;
+    private final Workspace workspace;
 
     public KahnsTopologicalSort() {
-        this.metrics = new OperationCounter();
+        this(new OperationCounter());
+    }
+
+    public KahnsTopologicalSort(Metrics metrics) {
+        this(metrics, Workspace.NONE);
+    }
+
+    // In-degrees are borrowed from workspace; the queue is the returned order
+    public KahnsTopologicalSort(Metrics metrics, Workspace workspace) {
+        this.metrics = metrics;
+        this.workspace = workspace;
     }
 
     @Override
-    public List<Integer> topologicalOrder(Graph graph) {
-        metrics.reset(); // Reset operation counts only
+    public int[] order(WeightedGraph graph) {
+        metrics.reset(); // Reset operation counts and elapsed time
+        metrics.startTimer();
 
         int n = graph.getVertices();
-        int[] inDegree = new int[n];
+        int[] inDegree = workspace.ints(n);
 
-        // Calculate in-degrees
-        for (int u = 0; u < n; u++) {
-            for (Graph.Edge edge : graph.getNeighbors(u)) {
-                inDegree[edge.target]++;
-                metrics.incrementOperation("in_degree_calc");
+        try {
+            // Calculate in-degrees
+            for (int u = 0; u < n; u++) {
+                for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                    inDegree[graph.getNeighbor(u, i)]++;
+                }
             }
-        }
+            metrics.add(Operation.IN_DEGREE_CALC, graph.getEdgeCount());
+
+            long pushes = 0;
+            long decrements = 0;
 
-        // Initialize queue with nodes having 0 in-degree
-        Queue<Integer> queue = new LinkedList<>();
-        for (int i = 0; i < n; i++) {
-            if (inDegree[i] == 0) {
-                queue.offer(i);
-                metrics.incrementOperation("queue_push");
+            // Initialize queue with nodes having 0 in-degree; every vertex enters it at most
+            // once, so the dequeued prefix is the order itself
+            int[] queue = new int[n];
+            int head = 0;
+            int tail = 0;
+            for (int i = 0; i < n; i++) {
+                if (inDegree[i] == 0) {
+                    queue[tail++] = i;
+                    pushes++;
+                }
             }
-        }
 
-        List<Integer> result = new ArrayList<>();
-        while (!queue.isEmpty()) {
-            int node = queue.poll();
-            metrics.incrementOperation("queue_pop");
-            result.add(node);
+            while (head < tail) {
+                int node = queue[head++];
 
-            for (Graph.Edge edge : graph.getNeighbors(node)) {
-                inDegree[edge.target]--;
-                metrics.incrementOperation("in_degree_decrement");
+                for (int i = 0, degree = graph.getOutDegree(node); i < degree; i++) {
+                    int target = graph.getNeighbor(node, i);
+                    inDegree[target]--;
+                    decrements++;
 
-                if (inDegree[edge.target] == 0) {
-                    queue.offer(edge.target);
-                    metrics.incrementOperation("queue_push");
+                    if (inDegree[target] == 0) {
+                        queue[tail++] = target;
+                        pushes++;
+                    }
                 }
             }
-        }
 
-        // Check for cycles
-        if (result.size() != n) {
-            throw new IllegalArgumentException("Graph has cycles - topological sort not possible");
-        }
+            metrics.add(Operation.QUEUE_PUSH, pushes);
+            metrics.add(Operation.QUEUE_POP, head);
+            metrics.add(Operation.IN_DEGREE_DECREMENT, decrements);
+            metrics.stopTimer();
 
-        return result;
+            // Check for cycles
+            if (head != n) {
+                throw new IllegalArgumentException("Graph has cycles - topological sort not possible");
+            }
+
+            return queue;
+        } finally {
+            workspace.release(inDegree);
+        }
     }
 
     @Override
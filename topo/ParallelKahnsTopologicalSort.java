@@ -0,0 +1,241 @@
+package graph.topo;
+
+import graph.model.WeightedGraph;
+import graph.metrics.Metrics;
+import graph.metrics.Operation;
+import graph.metrics.OperationCounter;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Level-synchronous Kahn's algorithm. Each frontier (all vertices whose
+ * in-degree has dropped to zero) is processed with fork/join; in-degrees are
+ * decremented atomically and the vertices that reach zero form the next
+ * frontier. The frontier index of a vertex is its level (wavefront).
+ *
+ * In deterministic mode every frontier is sorted, so the order is the same
+ * on every run and for any number of threads. Worker threads only touch
+ * atomics; counts are reported to Metrics from the calling thread.
+ */
+public class ParallelKahnsTopologicalSort implements TopologicalSort {
+    // Frontiers smaller than this are processed on the calling thread
+    private static final int SEQUENTIAL_THRESHOLD = 2048;
+    // Vertices handled by one fork/join leaf
+    private static final int GRAIN = 1024;
+
+    private final Metrics metrics;
+    private final boolean deterministic;
+    private final ForkJoinPool pool;
+
+    public ParallelKahnsTopologicalSort() {
+        this(new OperationCounter(), true);
+    }
+
+    public ParallelKahnsTopologicalSort(Metrics metrics, boolean deterministic) {
+        this(metrics, deterministic, ForkJoinPool.commonPool());
+    }
+
+    public ParallelKahnsTopologicalSort(Metrics metrics, boolean deterministic, ForkJoinPool pool) {
+        this.metrics = metrics;
+        this.deterministic = deterministic;
+        this.pool = pool;
+    }
+
+    @Override
+    public int[] order(WeightedGraph graph) {
+        return topologicalLevels(graph).order;
+    }
+
+    public LevelOrder topologicalLevels(WeightedGraph graph) {
+        metrics.reset(); // Reset operation counts and elapsed time
+        metrics.startTimer();
+
+        int n = graph.getVertices();
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+
+        // Calculate in-degrees
+        pool.invoke(new InDegreeTask(graph, inDegree, 0, n));
+        metrics.add(Operation.IN_DEGREE_CALC, graph.getEdgeCount());
+
+        int[] order = new int[n];
+        int[] level = new int[n];
+        int[] levelOffsets = new int[n + 1];
+        int[] next = new int[n];
+        AtomicInteger nextSize = new AtomicInteger();
+        LongAdder decrements = new LongAdder();
+
+        // First frontier: all sources, already ascending
+        int size = 0;
+        for (int v = 0; v < n; v++) {
+            if (inDegree.get(v) == 0) {
+                order[size++] = v;
+            }
+        }
+
+        int start = 0;
+        int levels = 0;
+        while (start < size) {
+            int end = size;
+            levelOffsets[levels] = start;
+            for (int i = start; i < end; i++) {
+                level[order[i]] = levels;
+            }
+
+            nextSize.set(0);
+            if (end - start < SEQUENTIAL_THRESHOLD) {
+                // Inline and unsplit: compute() would fork into the common pool from this thread
+                new FrontierTask(graph, inDegree, order, start, end, next, nextSize, decrements).computeDirectly();
+            } else {
+                pool.invoke(new FrontierTask(graph, inDegree, order, start, end, next, nextSize, decrements));
+            }
+
+            int produced = nextSize.get();
+            if (deterministic) {
+                if (produced < SEQUENTIAL_THRESHOLD) {
+                    Arrays.sort(next, 0, produced);
+                } else {
+                    Arrays.parallelSort(next, 0, produced);
+                }
+            }
+            System.arraycopy(next, 0, order, end, produced);
+
+            start = end;
+            size = end + produced;
+            levels++;
+        }
+        levelOffsets[levels] = size;
+
+        metrics.add(Operation.QUEUE_PUSH, size);
+        metrics.add(Operation.QUEUE_POP, size);
+        metrics.add(Operation.IN_DEGREE_DECREMENT, decrements.sum());
+        metrics.stopTimer();
+
+        // Check for cycles
+        if (size != n) {
+            throw new IllegalArgumentException("Graph has cycles - topological sort not possible");
+        }
+
+        return new LevelOrder(order, level, Arrays.copyOf(levelOffsets, levels + 1), levels);
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Topological order grouped by level: the vertices of level k are
+     * order[levelOffsets[k] .. levelOffsets[k + 1]), and level[v] is the
+     * wavefront in which v became ready (the longest hop count from a source).
+     */
+    public static class LevelOrder {
+        public final int[] order;
+        public final int[] level;
+        public final int[] levelOffsets;
+        public final int levelCount;
+
+        public LevelOrder(int[] order, int[] level, int[] levelOffsets, int levelCount) {
+            this.order = order;
+            this.level = level;
+            this.levelOffsets = levelOffsets;
+            this.levelCount = levelCount;
+        }
+    }
+
+    private static final class InDegreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final WeightedGraph graph;
+        private final AtomicIntegerArray inDegree;
+        private final int from;
+        private final int to;
+
+        InDegreeTask(WeightedGraph graph, AtomicIntegerArray inDegree, int from, int to) {
+            this.graph = graph;
+            this.inDegree = inDegree;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN * 8) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new InDegreeTask(graph, inDegree, from, mid),
+                        new InDegreeTask(graph, inDegree, mid, to));
+                return;
+            }
+            for (int u = from; u < to; u++) {
+                for (int i = 0, degree = graph.getOutDegree(u); i < degree; i++) {
+                    inDegree.incrementAndGet(graph.getNeighbor(u, i));
+                }
+            }
+        }
+    }
+
+    private static final class FrontierTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final WeightedGraph graph;
+        private final AtomicIntegerArray inDegree;
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+        private final int[] next;
+        private final AtomicInteger nextSize;
+        private final LongAdder decrements;
+
+        FrontierTask(WeightedGraph graph, AtomicIntegerArray inDegree, int[] frontier, int from, int to,
+                     int[] next, AtomicInteger nextSize, LongAdder decrements) {
+            this.graph = graph;
+            this.inDegree = inDegree;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.next = next;
+            this.nextSize = nextSize;
+            this.decrements = decrements;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new FrontierTask(graph, inDegree, frontier, from, mid, next, nextSize, decrements),
+                        new FrontierTask(graph, inDegree, frontier, mid, to, next, nextSize, decrements));
+                return;
+            }
+            computeDirectly();
+        }
+
+        void computeDirectly() {
+            // Collect locally, then publish the block with one atomic reservation
+            int[] ready = new int[16];
+            int count = 0;
+            long edges = 0;
+            for (int i = from; i < to; i++) {
+                int u = frontier[i];
+                for (int j = 0, degree = graph.getOutDegree(u); j < degree; j++) {
+                    int v = graph.getNeighbor(u, j);
+                    edges++;
+                    if (inDegree.decrementAndGet(v) == 0) {
+                        if (count == ready.length) {
+                            ready = Arrays.copyOf(ready, count * 2);
+                        }
+                        ready[count++] = v;
+                    }
+                }
+            }
+
+            if (count > 0) {
+                int offset = nextSize.getAndAdd(count);
+                System.arraycopy(ready, 0, next, offset, count);
+            }
+            decrements.add(edges);
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package graph.topo;
 
-import graph.model.Graph;
+import graph.model.WeightedGraph;
 import graph.metrics.Metrics;
+import graph.util.IntArrays;
 import java.util.List;
 
 public interface TopologicalSort {
-    List<Integer> topologicalOrder(Graph graph);
+    int[] order(WeightedGraph graph);
+
+    // List view of order, for callers that still take lists
+    default List<Integer> topologicalOrder(WeightedGraph graph) {
+        return IntArrays.asList(order(graph));
+    }
+
     Metrics getMetrics();
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package graph.util;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only List views over int arrays, for callers that still take
+ * List<Integer>. A view boxes elements only as they are read and equals,
+ * hashes and prints like an ArrayList with the same elements.
+ */
+public final class IntArrays {
+
+    private IntArrays() {}
+
+    public static List<Integer> asList(int[] values) {
+        return new View(values, 0, values.length);
+    }
+
+    // Elements from (inclusive) to to (exclusive), without copying
+    public static List<Integer> asList(int[] values, int from, int to) {
+        if (from < 0 || to > values.length || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") of " + values.length);
+        }
+        return new View(values, from, to);
+    }
+
+    /**
+     * The elements of list as an int array. A view over a whole array gives
+     * back that array without copying, so the result must not be modified.
+     */
+    public static int[] toArray(List<Integer> list) {
+        if (list instanceof View) {
+            View view = (View) list;
+            if (view.from == 0 && view.to == view.values.length) {
+                return view.values;
+            }
+        }
+        int[] values = new int[list.size()];
+        int i = 0;
+        for (int value : list) {
+            values[i++] = value;
+        }
+        return values;
+    }
+
+    private static final class View extends AbstractList<Integer> implements RandomAccess {
+        private final int[] values;
+        private final int from;
+        private final int to;
+
+        View(int[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException("Index " + index + " of " + (to - from));
+            }
+            return values[from + index];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (o instanceof Integer) {
+                int value = (Integer) o;
+                for (int i = from; i < to; i++) {
+                    if (values[i] == value) {
+                        return i - from;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return indexOf(o) != -1;
+        }
+    }
+}
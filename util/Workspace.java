@@ -0,0 +1,124 @@
+package graph.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Scratch arrays lent to algorithms and taken back when they finish, so
+ * repeated runs over graphs of similar size stop allocating once the pool
+ * has grown to the largest input. A borrowed array may be longer than
+ * requested; only the first size elements are cleared and should be used.
+ * Results handed to callers are never borrowed.
+ *
+ * Not thread-safe: use one workspace per thread. NONE allocates a fresh
+ * array on every request and keeps nothing, which is the behavior of the
+ * algorithms' default constructors.
+ */
+public class Workspace {
+    public static final Workspace NONE = new Workspace(0);
+
+    // Arrays kept per element type; more releases than this are dropped
+    private static final int DEFAULT_POOL_SIZE = 16;
+
+    private final int poolSize;
+    private final List<int[]> ints = new ArrayList<>();
+    private final List<boolean[]> booleans = new ArrayList<>();
+    private long allocations;
+
+    public Workspace() {
+        this(DEFAULT_POOL_SIZE);
+    }
+
+    private Workspace(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    // At least size ints, the first size of them zero
+    public int[] ints(int size) {
+        return ints(size, 0);
+    }
+
+    // At least size ints, the first size of them set to fill
+    public int[] ints(int size, int fill) {
+        int best = -1;
+        for (int i = 0; i < ints.size(); i++) {
+            int length = ints.get(i).length;
+            if (length >= size && (best == -1 || length < ints.get(best).length)) {
+                best = i;
+            }
+        }
+        if (best == -1) {
+            return fresh(size, fill);
+        }
+        int[] array = removeAt(ints, best);
+        Arrays.fill(array, 0, size, fill);
+        return array;
+    }
+
+    // At least size booleans, the first size of them false
+    public boolean[] booleans(int size) {
+        int best = -1;
+        for (int i = 0; i < booleans.size(); i++) {
+            int length = booleans.get(i).length;
+            if (length >= size && (best == -1 || length < booleans.get(best).length)) {
+                best = i;
+            }
+        }
+        if (best == -1) {
+            count();
+            return new boolean[grow(size)];
+        }
+        boolean[] array = removeAt(booleans, best);
+        Arrays.fill(array, 0, size, false);
+        return array;
+    }
+
+    public void release(int[] array) {
+        if (array != null && ints.size() < poolSize) {
+            ints.add(array);
+        }
+    }
+
+    public void release(boolean[] array) {
+        if (array != null && booleans.size() < poolSize) {
+            booleans.add(array);
+        }
+    }
+
+    // Arrays this workspace had to create; flat once it is warm
+    public long getAllocations() {
+        return allocations;
+    }
+
+    private int[] fresh(int size, int fill) {
+        count();
+        int[] array = new int[grow(size)];
+        if (fill != 0) {
+            Arrays.fill(array, 0, size, fill);
+        }
+        return array;
+    }
+
+    // NONE is shared between threads and keeps no count
+    private void count() {
+        if (poolSize > 0) {
+            allocations++;
+        }
+    }
+
+    // Pooled arrays get some headroom so a slightly larger graph still fits
+    private int grow(int size) {
+        if (poolSize == 0) {
+            return size;
+        }
+        return (int) Math.min(Integer.MAX_VALUE - 8, size + (long) (size >> 3));
+    }
+
+    private static <T> T removeAt(List<T> list, int index) {
+        T array = list.get(index);
+        list.set(index, list.get(list.size() - 1));
+        list.remove(list.size() - 1);
+        return array;
+    }
+}